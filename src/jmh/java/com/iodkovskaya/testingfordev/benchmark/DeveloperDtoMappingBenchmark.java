@@ -0,0 +1,45 @@
+package com.iodkovskaya.testingfordev.benchmark;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeveloperDtoMappingBenchmark {
+    private DeveloperDto dto;
+    private DeveloperEntity entity;
+
+    @Setup
+    public void setUp() {
+        dto = DeveloperDto.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@mail.com")
+                .specialty("Java")
+                .status(Status.ACTIVE)
+                .build();
+        entity = dto.toEntity();
+    }
+
+    @Benchmark
+    public DeveloperEntity toEntity() {
+        return dto.toEntity();
+    }
+
+    @Benchmark
+    public DeveloperDto fromEntity() {
+        return DeveloperDto.fromEntity(entity);
+    }
+}
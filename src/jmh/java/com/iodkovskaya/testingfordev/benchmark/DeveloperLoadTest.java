@@ -0,0 +1,120 @@
+package com.iodkovskaya.testingfordev.benchmark;
+
+import com.iodkovskaya.testingfordev.TestingfordevApplication;
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// closed-loop HTTP load against a running app, once with platform and once with virtual request threads
+// usage: gradle loadTest [-Prequests=20000] [-Pconcurrency=1000] [-Prows=100000]
+public class DeveloperLoadTest {
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(run(virtual, requests, concurrency, rows));
+        }
+        System.out.printf("%-10s %10s %10s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10.0f %10.2f %10.2f %10.2f %8d%n", result.mode(), result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors());
+        }
+    }
+
+    private static Result run(boolean virtual, int requests, int concurrency, int rows) throws InterruptedException {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = SpringApplication.run(TestingfordevApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.profiles.active=" + (virtual ? "virtual" : "default"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            populate(context.getBean(JdbcTemplate.class), context.getBean(SpecialtyDictionary.class), rows);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            fire(client, port, Math.min(requests, 2_000), concurrency, new long[Math.min(requests, 2_000)]);
+            long[] latencies = new long[requests];
+            long started = System.nanoTime();
+            int errors = fire(client, port, requests, concurrency, latencies);
+            long elapsed = System.nanoTime() - started;
+            Arrays.sort(latencies);
+            return new Result(mode, latencies, errors, requests * 1_000_000_000.0 / elapsed);
+        }
+    }
+
+    private static int fire(HttpClient client, int port, int requests, int concurrency, long[] latencies)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger errors = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int index = i;
+                executor.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/api/v1/developers/specialty/" + SPECIALTIES[index % SPECIALTIES.length]
+                            + "?limit=50")).GET().build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return errors.get();
+    }
+
+    private static void populate(JdbcTemplate jdbcTemplate, SpecialtyDictionary specialtyDictionary, int rows) {
+        Short[] specialtyCodes = Arrays.stream(SPECIALTIES).map(specialtyDictionary::codeOf).toArray(Short[]::new);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            batch.add(new Object[]{i, "developer" + i + "@mail.com", "First" + i, "Last" + i,
+                    specialtyCodes[i % specialtyCodes.length], i % 4 == 0 ? "DELETED" : "ACTIVE", 0L});
+            if (batch.size() == 10_000 || i == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO developers (id, email, first_name, last_name, specialty_code, status, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private record Result(String mode, long[] latencies, int errors, double throughput) {
+        double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.iodkovskaya.testingfordev.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeveloperSerializationBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<DeveloperDto> developers;
+
+    @Setup
+    public void setUp() {
+        developers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            developers.add(DeveloperDto.builder()
+                    .id(i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("developer" + i + "@mail.com")
+                    .specialty(i % 2 == 0 ? "Java" : "Go")
+                    .status(Status.ACTIVE)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(developers);
+    }
+}
@@ -0,0 +1,111 @@
+package com.iodkovskaya.testingfordev.benchmark;
+
+import com.iodkovskaya.testingfordev.TestingfordevApplication;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.service.DeveloperService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DeveloperServiceBenchmark {
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DeveloperService developerService;
+    private DeveloperRepository developerRepository;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(TestingfordevApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark" + rows + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        developerService = context.getBean(DeveloperService.class);
+        developerRepository = context.getBean(DeveloperRepository.class);
+        populate(context.getBean(JdbcTemplate.class), context.getBean(SpecialtyDictionary.class));
+        // rows are inserted behind the service, so the index built at startup has to be rebuilt
+        context.getBean(DeveloperSearchIndex.class).warmUp();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DeveloperEntity> getAllDevelopers() {
+        return developerService.getAllDevelopers();
+    }
+
+    @Benchmark
+    public void streamAllDevelopers(Blackhole blackhole) {
+        developerService.streamAllDevelopers(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<DeveloperEntity> findAllActiveBySpecialty() {
+        return developerRepository.findAllActiveBySpecialty("Java");
+    }
+
+    @Benchmark
+    public List<DeveloperDto> findAllActiveDtosBySpecialty() {
+        return developerRepository.findAllActiveDtosBySpecialty("Java");
+    }
+
+    @Benchmark
+    public List<DeveloperDto> searchDevelopersByPrefix() {
+        return developerService.searchDevelopers("first12", 10);
+    }
+
+    @Benchmark
+    public List<DeveloperDto> searchDevelopersByTwoTerms() {
+        return developerService.searchDevelopers("last123 java", 10);
+    }
+
+    // every fourth developer is soft-deleted, specialties are spread evenly
+    private void populate(JdbcTemplate jdbcTemplate, SpecialtyDictionary specialtyDictionary) {
+        Short[] specialtyCodes = Arrays.stream(SPECIALTIES).map(specialtyDictionary::codeOf).toArray(Short[]::new);
+        String sql = "INSERT INTO developers (id, email, first_name, last_name, specialty_code, status, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, "developer" + id + "@mail.com", "First" + id, "Last" + id,
+                    specialtyCodes[id % specialtyCodes.length], id % 4 == 0 ? "DELETED" : "ACTIVE", 0L});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class DeveloperCache {
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final Cache<Integer, DeveloperEntity> developersById;
+    private final Cache<String, Integer> idsByEmail;
+    // bumped before an eviction removes anything, a load that started before the bump must not be cached
+    private final AtomicLongArray evictionsByStripe = new AtomicLongArray(EVICTION_STRIPES);
+    private final AtomicLong allEvictions = new AtomicLong();
+    private final AtomicLong anyEvictions = new AtomicLong();
+    // a replica read may return a row from before a write this node has already seen committed; for as long as a
+    // client's reads stay pinned to the primary after its write, a load is only cached if it is at least the version
+    // that write committed, and a write of unknown version keeps its ids from being cached at all. Only the replica
+    // profile sets the stickiness, without a replica there is nothing to wait for
+    private final Cache<Integer, Long> committedVersions;
+    private final long replicaLagNanos;
+    private volatile long fillsBlockedUntil = System.nanoTime();
+
+    public DeveloperCache(@Value("${developers.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${developers.cache.ttl:PT5M}") Duration ttl,
+                          @Value("${developers.datasource.stickiness:0s}") Duration replicaLag) {
+        this.developersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.committedVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(replicaLag)
+                .build();
+        this.replicaLagNanos = replicaLag.toNanos();
+    }
+
+    // entities are mutable, callers get their own copy so nothing they change leaks into the cache
+    public Optional<DeveloperEntity> getById(Integer id) {
+        return Optional.ofNullable(developersById.getIfPresent(id))
+                .map(DeveloperCache::copyOf);
+    }
+
+    public Optional<DeveloperEntity> getByEmail(String email) {
+        Integer id = idsByEmail.getIfPresent(email);
+        if (Objects.isNull(id)) {
+            return Optional.empty();
+        }
+        // the email index may outlive an email change made while the developer itself was not cached
+        DeveloperEntity developer = developersById.asMap().get(id);
+        if (Objects.isNull(developer) || !email.equals(developer.getEmail())) {
+            idsByEmail.invalidate(email);
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(developer));
+    }
+
+    // read-through for a miss: a load that overlapped an eviction of the same developer is handed out but not
+    // cached, it may have read the row before the evicting write committed
+    public DeveloperEntity loadById(Integer id, Supplier<DeveloperEntity> loader) {
+        int stripe = stripeOf(id);
+        long stripeEvictions = evictionsByStripe.get(stripe);
+        long allEvictionsSeen = allEvictions.get();
+        DeveloperEntity loaded = loader.get();
+        putIf(loaded, () -> evictionsByStripe.get(stripe) == stripeEvictions && allEvictions.get() == allEvictionsSeen
+                && isCaughtUp(loaded));
+        return loaded;
+    }
+
+    // the id behind an email is only known once loaded, so any eviction meanwhile keeps the row out of the cache
+    public DeveloperEntity loadByEmail(Supplier<DeveloperEntity> loader) {
+        long evictions = anyEvictions.get();
+        DeveloperEntity loaded = loader.get();
+        putIf(loaded, () -> anyEvictions.get() == evictions && isCaughtUp(loaded));
+        return loaded;
+    }
+
+    // writes reach the cache only once they are committed, so a rolled back write leaves nothing behind; an update
+    // evicts rather than caching what the caller sent, the next read loads the row as it was persisted. Bulk creates
+    // are put too, Caffeine's admission policy keeps one-off entries from pushing out the frequently read ones
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> event.getDevelopers().forEach(this::put);
+            case UPDATED, SOFT_DELETED, HARD_DELETED -> {
+                if (Objects.nonNull(event.getSpecialty())) {
+                    evictAll();
+                } else if (event.getType() == DeveloperChangeType.UPDATED) {
+                    event.getDevelopers().forEach(developer -> evict(developer.getId(),
+                            Objects.requireNonNullElse(developer.getVersion(), Long.MAX_VALUE)));
+                } else {
+                    event.getIds().forEach(this::evict);
+                }
+            }
+        }
+    }
+
+    public void put(DeveloperEntity developer) {
+        putIf(developer, () -> true);
+    }
+
+    // the check runs inside the map's compute, an eviction bumps its counter before removing so it either refuses
+    // this put or removes what it stored
+    private void putIf(DeveloperEntity developer, BooleanSupplier notEvicted) {
+        if (Objects.isNull(developer.getId())) {
+            return;
+        }
+        DeveloperEntity cached = copyOf(developer);
+        DeveloperEntity[] replaced = new DeveloperEntity[1];
+        DeveloperEntity stored = developersById.asMap().compute(developer.getId(), (id, previous) -> {
+            if (!notEvicted.getAsBoolean()) {
+                return previous;
+            }
+            replaced[0] = previous;
+            return cached;
+        });
+        if (stored != cached) {
+            return;
+        }
+        DeveloperEntity previous = replaced[0];
+        if (Objects.nonNull(previous) && !Objects.equals(previous.getEmail(), developer.getEmail())) {
+            evictEmail(previous.getEmail());
+        }
+        if (Objects.nonNull(developer.getEmail())) {
+            idsByEmail.put(developer.getEmail(), developer.getId());
+        }
+    }
+
+    public void evict(Integer id) {
+        evict(id, Long.MAX_VALUE);
+    }
+
+    private void evict(Integer id, long committedVersion) {
+        evictionsByStripe.incrementAndGet(stripeOf(id));
+        anyEvictions.incrementAndGet();
+        committedVersions.asMap().merge(id, committedVersion, Math::max);
+        DeveloperEntity previous = developersById.asMap().remove(id);
+        if (Objects.nonNull(previous)) {
+            evictEmail(previous.getEmail());
+        }
+    }
+
+    public void evictEmail(String email) {
+        if (Objects.nonNull(email)) {
+            idsByEmail.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        allEvictions.incrementAndGet();
+        anyEvictions.incrementAndGet();
+        fillsBlockedUntil = System.nanoTime() + replicaLagNanos;
+        developersById.invalidateAll();
+        idsByEmail.invalidateAll();
+    }
+
+    public CacheStats byIdStats() {
+        return developersById.stats();
+    }
+
+    public CacheStats byEmailStats() {
+        return idsByEmail.stats();
+    }
+
+    public long byIdSize() {
+        return developersById.estimatedSize();
+    }
+
+    public long byEmailSize() {
+        return idsByEmail.estimatedSize();
+    }
+
+    private boolean isCaughtUp(DeveloperEntity loaded) {
+        if (System.nanoTime() - fillsBlockedUntil < 0) {
+            return false;
+        }
+        Long committedVersion = committedVersions.getIfPresent(loaded.getId());
+        return Objects.isNull(committedVersion)
+                || (Objects.nonNull(loaded.getVersion()) && loaded.getVersion() >= committedVersion);
+    }
+
+    private static int stripeOf(Integer id) {
+        return Math.floorMod(id.hashCode(), EVICTION_STRIPES);
+    }
+
+    private static DeveloperEntity copyOf(DeveloperEntity developer) {
+        return DeveloperEntity.builder()
+                .id(developer.getId())
+                .email(developer.getEmail())
+                .firstName(developer.getFirstName())
+                .lastName(developer.getLastName())
+                .specialty(developer.getSpecialty())
+                .status(developer.getStatus())
+                .version(developer.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,553 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// serving copy of the active developers laid out as columns: parallel primitive arrays for id, version, status and
+// specialty code, plus string columns whose names are pooled, instead of one entity per developer; every answer is a
+// fresh detached entity or DTO, and anything not in the store (a deleted developer, a cold store) is left to the caller.
+// Only this node's writes reach the store, it cannot serve next to other nodes that write the same table.
+@Component
+public class DeveloperColumnStore {
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
+    private final DeveloperRepository developerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SpecialtyDictionary specialtyDictionary;
+    private final boolean enabled;
+    private final DeveloperSnapshot<Columns> snapshot = new DeveloperSnapshot<>();
+
+    public DeveloperColumnStore(DeveloperRepository developerRepository,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                SpecialtyDictionary specialtyDictionary,
+                                @Value("${developers.column-store.enabled:false}") boolean enabled,
+                                @Value("${developers.invalidation.transport:loopback}") String invalidationTransport) {
+        // an invalidation from another node only names the developers, the store would keep serving the old rows
+        if (enabled && !"loopback".equals(invalidationTransport)) {
+            throw new IllegalStateException(
+                    "developers.column-store.enabled requires developers.invalidation.transport=loopback");
+        }
+        this.developerRepository = developerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.specialtyDictionary = specialtyDictionary;
+        this.enabled = enabled;
+    }
+
+    public boolean isWarm() {
+        return Objects.nonNull(snapshot.current());
+    }
+
+    public int size() {
+        Columns current = snapshot.current();
+        return Objects.isNull(current) ? 0 : current.size();
+    }
+
+    int pooledNames() {
+        Columns current = snapshot.current();
+        return Objects.isNull(current) ? 0 : current.poolSize();
+    }
+
+    public Optional<DeveloperEntity> getById(Integer id) {
+        Columns current = snapshot.current();
+        if (Objects.isNull(current) || Objects.isNull(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.findById(id)).map(this::toEntity);
+    }
+
+    public Optional<DeveloperEntity> getByEmail(String email) {
+        Columns current = snapshot.current();
+        if (Objects.isNull(current) || Objects.isNull(email)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.findByEmail(email)).map(this::toEntity);
+    }
+
+    // false until the first warm-up finishes, after that every active developer goes to the consumer
+    public boolean forEachActive(Consumer<DeveloperDto> consumer) {
+        Columns current = snapshot.current();
+        if (Objects.isNull(current)) {
+            return false;
+        }
+        current.scan(Columns.ANY_SPECIALTY, row -> consumer.accept(toDto(row)));
+        return true;
+    }
+
+    public Optional<List<DeveloperDto>> getAllActiveDtosBySpecialty(String specialty) {
+        Columns current = snapshot.current();
+        if (Objects.isNull(current)) {
+            return Optional.empty();
+        }
+        // a name without a code has no developers
+        List<DeveloperDto> developers = new ArrayList<>();
+        specialtyDictionary.findCode(specialty)
+                .ifPresent(code -> current.scan(code, row -> developers.add(toDto(row))));
+        return Optional.of(developers);
+    }
+
+    // empty until the first warm-up finishes; taken before the list, which may already hold later changes
+    public Optional<DeveloperListStamp> getListStamp() {
+        return Optional.ofNullable(snapshot.current()).map(Columns::stamp);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        Columns rebuilt = new Columns();
+        snapshot.rebuild(rebuilt, offer -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<DeveloperEntity> developers = developerRepository.streamAllByStatus(Status.ACTIVE)) {
+                Iterator<DeveloperEntity> iterator = developers.iterator();
+                int loaded = 0;
+                while (iterator.hasNext()) {
+                    DeveloperEntity developer = iterator.next();
+                    offer.offer(developer.getId(), developer.getSpecialty(),
+                            () -> rebuilt.put(developer, specialtyCode(developer.getSpecialty())));
+                    // the columns hold their own copy, the persistence context must not keep every entity as well
+                    if (++loaded % STREAM_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+                entityManager.clear();
+            }
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        if (enabled) {
+            snapshot.onDeveloperChanged(event, this::apply);
+        }
+    }
+
+    private void apply(Columns target, DeveloperChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> event.getDevelopers().forEach(developer -> {
+                if (developer.getStatus() == Status.ACTIVE) {
+                    target.put(developer, specialtyCode(developer.getSpecialty()));
+                } else {
+                    target.remove(developer.getId());
+                }
+            });
+            case SOFT_DELETED, HARD_DELETED -> {
+                if (Objects.nonNull(event.getSpecialty())) {
+                    specialtyDictionary.findCode(event.getSpecialty()).ifPresent(target::removeSpecialty);
+                } else {
+                    event.getIds().forEach(target::remove);
+                }
+            }
+        }
+    }
+
+    private short specialtyCode(String specialty) {
+        // every stored name was registered by the write that stored it
+        return specialtyDictionary.findCode(specialty).orElse(Columns.NO_SPECIALTY);
+    }
+
+    // names are resolved outside the columns' lock, the dictionary may have to reload a code registered elsewhere
+    private DeveloperEntity toEntity(Row row) {
+        return DeveloperEntity.builder()
+                .id(row.id())
+                .email(row.email())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .specialty(specialtyName(row.specialty()))
+                .status(Status.ACTIVE)
+                .version(row.version() == Columns.UNKNOWN_VERSION ? null : row.version())
+                .build();
+    }
+
+    private DeveloperDto toDto(Row row) {
+        return DeveloperDto.builder()
+                .id(row.id())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .email(row.email())
+                .specialty(specialtyName(row.specialty()))
+                .status(Status.ACTIVE)
+                .build();
+    }
+
+    private String specialtyName(short code) {
+        return code == Columns.NO_SPECIALTY ? null : specialtyDictionary.nameOf(code);
+    }
+
+    private record Row(int id, long version, short specialty, String email, String firstName, String lastName) {
+    }
+
+    // one slot per developer across all arrays; writes are serialized by the owner's lock and take the stamped write
+    // lock, point reads are optimistic and scans take the read lock a chunk of slots at a time. Slots of removed developers go to a free list,
+    // the id and email tables are open addressing over slot numbers and may keep stale entries until they grow, so a
+    // hit is always checked against the slot's own id or email.
+    private static final class Columns {
+        static final short NO_SPECIALTY = 0;
+        static final short ANY_SPECIALTY = -1;
+        // an unversioned update does not learn the new version, the entity goes out without one like from the cache
+        static final long UNKNOWN_VERSION = -1;
+        private static final byte FREE = -1;
+        private static final byte ACTIVE = (byte) Status.ACTIVE.ordinal();
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final int SCAN_CHUNK_SLOTS = 1024;
+        // a build started later always gets a higher epoch, across restarts as well
+        private static final AtomicLong EPOCHS = new AtomicLong(System.currentTimeMillis());
+
+        private final StampedLock lock = new StampedLock();
+        private final long epoch = EPOCHS.incrementAndGet();
+        private long changes;
+        private long allocations;
+        private Map<String, String> namePool = new HashMap<>();
+
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private long[] versions = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private short[] specialties = new short[INITIAL_CAPACITY];
+        private String[] emails = new String[INITIAL_CAPACITY];
+        private String[] firstNames = new String[INITIAL_CAPACITY];
+        private String[] lastNames = new String[INITIAL_CAPACITY];
+        // the allocation a slot's developer got, a scan skips developers added after it started
+        private long[] born = new long[INITIAL_CAPACITY];
+        private int slots;
+        private int live;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+
+        // slot + 1, zero is an empty cell
+        private int[] idTable = new int[INITIAL_CAPACITY * 2];
+        private int[] emailTable = new int[INITIAL_CAPACITY * 2];
+        private int idEntries;
+        private int emailEntries;
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return live;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Row findById(int id) {
+            return read(() -> {
+                int slot = slotOfId(id);
+                return slot < 0 ? null : row(slot);
+            });
+        }
+
+        Row findByEmail(String email) {
+            return read(() -> {
+                int slot = slotOfEmail(email);
+                return slot < 0 ? null : row(slot);
+            });
+        }
+
+        DeveloperListStamp stamp() {
+            long stamp = lock.readLock();
+            try {
+                return new DeveloperListStamp(epoch, changes);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // the filter only touches the status and specialty columns, strings are read for matching slots only. The
+        // matching rows of a chunk of slots are copied under the read lock and handed out after it is released, so
+        // writers wait for one chunk at most; a developer removed and added back meanwhile may land in a slot not
+        // reached yet, developers added after the scan started are skipped so it is not handed out twice
+        void scan(short specialty, Consumer<Row> consumer) {
+            Row[] chunk = new Row[SCAN_CHUNK_SLOTS];
+            long bornBefore = -1;
+            int slot = 0;
+            boolean more = true;
+            while (more) {
+                int rows = 0;
+                long stamp = lock.readLock();
+                try {
+                    if (bornBefore < 0) {
+                        bornBefore = allocations;
+                    }
+                    int end = Math.min(slots, slot + SCAN_CHUNK_SLOTS);
+                    for (; slot < end; slot++) {
+                        if (statuses[slot] == ACTIVE && born[slot] <= bornBefore
+                                && (specialty == ANY_SPECIALTY || specialties[slot] == specialty)) {
+                            chunk[rows++] = row(slot);
+                        }
+                    }
+                    more = slot < slots;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+                for (int row = 0; row < rows; row++) {
+                    consumer.accept(chunk[row]);
+                    chunk[row] = null;
+                }
+            }
+        }
+
+        void put(DeveloperEntity developer, short specialty) {
+            if (Objects.isNull(developer.getId())) {
+                return;
+            }
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOfId(developer.getId());
+                boolean emailChanged = true;
+                if (slot < 0) {
+                    slot = allocate();
+                    ids[slot] = developer.getId();
+                    statuses[slot] = ACTIVE;
+                    born[slot] = ++allocations;
+                    live++;
+                    indexId(slot);
+                } else {
+                    emailChanged = !Objects.equals(emails[slot], developer.getEmail());
+                }
+                write(slot, developer, specialty);
+                changes++;
+                // the entry for a previous email stays behind and no longer matches the slot
+                if (emailChanged && Objects.nonNull(developer.getEmail())) {
+                    indexEmail(slot);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(Integer id) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOfId(id);
+                if (slot >= 0) {
+                    free(slot);
+                    changes++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void removeSpecialty(short specialty) {
+            long stamp = lock.writeLock();
+            try {
+                for (int slot = 0; slot < slots; slot++) {
+                    if (statuses[slot] == ACTIVE && specialties[slot] == specialty) {
+                        free(slot);
+                    }
+                }
+                changes++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // a torn read of arrays being replaced can throw or return garbage, both are retried under the read lock
+        private <T> T read(Supplier<T> reader) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    T value = reader.get();
+                    if (lock.validate(stamp)) {
+                        return value;
+                    }
+                } catch (RuntimeException ignored) {
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return reader.get();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private Row row(int slot) {
+            return new Row(ids[slot], versions[slot], specialties[slot], emails[slot], firstNames[slot], lastNames[slot]);
+        }
+
+        private void write(int slot, DeveloperEntity developer, short specialty) {
+            versions[slot] = Objects.isNull(developer.getVersion()) ? UNKNOWN_VERSION : developer.getVersion();
+            specialties[slot] = specialty;
+            emails[slot] = developer.getEmail();
+            firstNames[slot] = pooled(developer.getFirstName());
+            lastNames[slot] = pooled(developer.getLastName());
+        }
+
+        private String pooled(String name) {
+            if (Objects.isNull(name)) {
+                return null;
+            }
+            // names of removed and renamed developers stay behind, once they may outnumber the live ones the pool
+            // is rebuilt from the live slots, which keeps it within a few entries per developer
+            if (namePool.size() >= 4L * live + INITIAL_CAPACITY) {
+                repool();
+            }
+            return namePool.computeIfAbsent(name, key -> key);
+        }
+
+        private void repool() {
+            Map<String, String> pool = new HashMap<>();
+            for (int slot = 0; slot < slots; slot++) {
+                if (statuses[slot] == ACTIVE) {
+                    repool(pool, firstNames[slot]);
+                    repool(pool, lastNames[slot]);
+                }
+            }
+            namePool = pool;
+        }
+
+        private static void repool(Map<String, String> pool, String name) {
+            if (Objects.nonNull(name)) {
+                pool.putIfAbsent(name, name);
+            }
+        }
+
+        int poolSize() {
+            long stamp = lock.readLock();
+            try {
+                return namePool.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (slots == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                specialties = Arrays.copyOf(specialties, capacity);
+                emails = Arrays.copyOf(emails, capacity);
+                firstNames = Arrays.copyOf(firstNames, capacity);
+                lastNames = Arrays.copyOf(lastNames, capacity);
+                born = Arrays.copyOf(born, capacity);
+            }
+            return slots++;
+        }
+
+        private void free(int slot) {
+            statuses[slot] = FREE;
+            emails[slot] = null;
+            firstNames[slot] = null;
+            lastNames[slot] = null;
+            live--;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        private int slotOfId(int id) {
+            int[] table = idTable;
+            int mask = table.length - 1;
+            for (int probe = 0, cell = mix(id) & mask; probe < table.length; probe++, cell = (cell + 1) & mask) {
+                int entry = table[cell];
+                if (entry == 0) {
+                    return -1;
+                }
+                int slot = entry - 1;
+                if (statuses[slot] == ACTIVE && ids[slot] == id) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int slotOfEmail(String email) {
+            int[] table = emailTable;
+            int mask = table.length - 1;
+            for (int probe = 0, cell = mix(email.hashCode()) & mask; probe < table.length; probe++, cell = (cell + 1) & mask) {
+                int entry = table[cell];
+                if (entry == 0) {
+                    return -1;
+                }
+                int slot = entry - 1;
+                if (statuses[slot] == ACTIVE && email.equals(emails[slot])) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void indexId(int slot) {
+            if (++idEntries * 2 > idTable.length) {
+                idTable = new int[tableCapacity()];
+                idEntries = reindex(idTable, true);
+            } else {
+                insert(idTable, mix(ids[slot]), slot);
+            }
+        }
+
+        private void indexEmail(int slot) {
+            if (++emailEntries * 2 > emailTable.length) {
+                emailTable = new int[tableCapacity()];
+                emailEntries = reindex(emailTable, false);
+            } else {
+                insert(emailTable, mix(emails[slot].hashCode()), slot);
+            }
+        }
+
+        // rebuilt from the live slots only, which is where stale entries go away
+        private int reindex(int[] table, boolean byId) {
+            int entries = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (statuses[slot] != ACTIVE || (!byId && Objects.isNull(emails[slot]))) {
+                    continue;
+                }
+                insert(table, mix(byId ? ids[slot] : emails[slot].hashCode()), slot);
+                entries++;
+            }
+            return entries;
+        }
+
+        private int tableCapacity() {
+            return Integer.highestOneBit(Math.max(live, INITIAL_CAPACITY)) * 4;
+        }
+
+        private static void insert(int[] table, int hash, int slot) {
+            int mask = table.length - 1;
+            int cell = hash & mask;
+            while (table[cell] != 0) {
+                cell = (cell + 1) & mask;
+            }
+            table[cell] = slot + 1;
+        }
+
+        private static int mix(int hash) {
+            int mixed = hash * 0x9E3779B9;
+            return mixed ^ (mixed >>> 16);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Component
+public class DeveloperEmailFilter {
+    private final DeveloperRepository developerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long minimumExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private volatile BloomFilter<String> filter;
+    private volatile BloomFilter<String> pendingFilter;
+    private volatile long expectedInsertions;
+
+    public DeveloperEmailFilter(DeveloperRepository developerRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${developers.email-filter.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${developers.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.developerRepository = developerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minimumExpectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // a positive answer only means "maybe", the unique constraint on email stays the final arbiter
+    public boolean mightContain(String email) {
+        if (Objects.isNull(email)) {
+            return false;
+        }
+        BloomFilter<String> current = filter;
+        // until the first warm-up finishes every email has to be treated as possibly present
+        return Objects.isNull(current) || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        if (Objects.isNull(email)) {
+            return;
+        }
+        BloomFilter<String> current = filter;
+        if (Objects.nonNull(current)) {
+            current.put(email);
+        }
+        BloomFilter<String> pending = pendingFilter;
+        if (Objects.nonNull(pending)) {
+            pending.put(email);
+        }
+        insertions.incrementAndGet();
+        rebuildIfDegraded();
+    }
+
+    public void markStale(long entries) {
+        if (entries <= 0) {
+            return;
+        }
+        staleEntries.addAndGet(entries);
+        rebuildIfDegraded();
+    }
+
+    public boolean isWarm() {
+        return Objects.nonNull(filter);
+    }
+
+    public long getStaleEntries() {
+        return staleEntries.get();
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter<String> current = filter;
+        return Objects.isNull(current) ? 1.0 : current.expectedFpp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuild();
+        }
+    }
+
+    private void rebuildIfDegraded() {
+        long capacity = expectedInsertions;
+        if (!isWarm() || (insertions.get() <= capacity && staleEntries.get() <= capacity / 4)) {
+            return;
+        }
+        if (rebuilding.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            long capacity = Math.max(minimumExpectedInsertions, developerRepository.count() * 2);
+            BloomFilter<String> rebuilt = BloomFilter.create(
+                    Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, falsePositiveRate);
+            pendingFilter = rebuilt;
+            AtomicLong loaded = new AtomicLong();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = developerRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        rebuilt.put(email);
+                        loaded.incrementAndGet();
+                    });
+                }
+            });
+            expectedInsertions = capacity;
+            insertions.set(loaded.get());
+            staleEntries.set(0);
+            filter = rebuilt;
+        } finally {
+            pendingFilter = null;
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// in-memory inverted index of active developers: every token of the names, the specialty and the email local part,
+// plus the whole email, points to the ids that contain it; a sorted token map turns a prefix into a range scan
+@Component
+public class DeveloperSearchIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final DeveloperRepository developerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final DeveloperSnapshot<Index> snapshot = new DeveloperSnapshot<>();
+
+    public DeveloperSearchIndex(DeveloperRepository developerRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${developers.search.enabled:true}") boolean enabled) {
+        this.developerRepository = developerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isWarm() {
+        return Objects.nonNull(snapshot.current());
+    }
+
+    public int size() {
+        Index current = snapshot.current();
+        return Objects.isNull(current) ? 0 : current.documents.size();
+    }
+
+    // empty until the first warm-up finishes; every query term has to be a prefix of some token of the developer
+    public Optional<List<DeveloperDto>> search(String query, int limit) {
+        Index current = snapshot.current();
+        if (Objects.isNull(current)) {
+            return Optional.empty();
+        }
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Optional.of(List.of());
+        }
+        // the longest term has the narrowest range, it drives the scan and the others only filter
+        String driver = terms.stream().max((a, b) -> Integer.compare(a.length(), b.length())).orElseThrow();
+        Set<Integer> seen = new HashSet<>();
+        List<DeveloperDto> found = new ArrayList<>(Math.min(limit, 64));
+        // the exact token sorts first in its own prefix range, so exact matches are returned before longer tokens
+        for (Set<Integer> ids : prefixRange(current.postings, driver).values()) {
+            for (Integer id : ids) {
+                Document document = current.documents.get(id);
+                if (Objects.isNull(document) || !document.matchesAll(terms) || !seen.add(id)) {
+                    continue;
+                }
+                found.add(document.developer());
+                if (found.size() == limit) {
+                    return Optional.of(found);
+                }
+            }
+        }
+        return Optional.of(found);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        Index rebuilt = new Index();
+        snapshot.rebuild(rebuilt, offer -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<DeveloperDto> developers = developerRepository.streamAllActiveDtos()) {
+                developers.forEach(developer -> offer.offer(developer.getId(), developer.getSpecialty(),
+                        () -> rebuilt.put(Document.of(developer))));
+            }
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        if (enabled) {
+            snapshot.onDeveloperChanged(event, DeveloperSearchIndex::apply);
+        }
+    }
+
+    // another node's write only names the developers, the active ones are read back and the rest dropped
+    public void refresh(Collection<Integer> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        snapshot.refresh(ids, () -> transactionTemplate.execute(status -> developerRepository.findAllActiveDtosByIds(ids)),
+                (target, developers) -> {
+                    ids.forEach(target::remove);
+                    developers.forEach(developer -> target.put(Document.of(developer)));
+                });
+    }
+
+    private static void apply(Index target, DeveloperChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> event.getDevelopers().forEach(developer -> {
+                if (developer.getStatus() == Status.ACTIVE) {
+                    target.put(Document.of(DeveloperDto.fromEntity(developer)));
+                } else {
+                    target.remove(developer.getId());
+                }
+            });
+            case SOFT_DELETED, HARD_DELETED -> {
+                if (Objects.nonNull(event.getSpecialty())) {
+                    target.removeSpecialty(event.getSpecialty());
+                } else {
+                    event.getIds().forEach(target::remove);
+                }
+            }
+        }
+    }
+
+    private static NavigableMap<String, ConcurrentSkipListSet<Integer>> prefixRange(
+            ConcurrentSkipListMap<String, ConcurrentSkipListSet<Integer>> postings, String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<String> queryTerms(String query) {
+        if (Objects.isNull(query)) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String part : WHITESPACE.split(query.trim().toLowerCase(Locale.ROOT))) {
+            // a term with @ is matched against the whole email instead of being split into words
+            if (part.indexOf('@') >= 0) {
+                terms.add(part);
+            } else {
+                addTokens(terms, part);
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    private static void addTokens(Collection<String> tokens, String text) {
+        if (Objects.isNull(text)) {
+            return;
+        }
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    private record Document(DeveloperDto developer, String[] tokens) {
+        static Document of(DeveloperDto developer) {
+            Set<String> tokens = new LinkedHashSet<>();
+            addTokens(tokens, developer.getFirstName());
+            addTokens(tokens, developer.getLastName());
+            addTokens(tokens, developer.getSpecialty());
+            String email = developer.getEmail();
+            if (Objects.nonNull(email)) {
+                int at = email.indexOf('@');
+                addTokens(tokens, at < 0 ? email : email.substring(0, at));
+                tokens.add(email.toLowerCase(Locale.ROOT));
+            }
+            return new Document(developer, tokens.toArray(String[]::new));
+        }
+
+        boolean matchesAll(List<String> terms) {
+            for (String term : terms) {
+                if (!matches(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String term) {
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // writes are serialized by the owner's lock; readers may briefly see postings that no longer match a document,
+    // which is why search checks every candidate against the document's own tokens
+    private static final class Index {
+        private final ConcurrentSkipListMap<String, ConcurrentSkipListSet<Integer>> postings = new ConcurrentSkipListMap<>();
+        private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+        void put(Document document) {
+            Integer id = document.developer().getId();
+            Document previous = documents.put(id, document);
+            for (String token : document.tokens()) {
+                postings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>()).add(id);
+            }
+            if (Objects.nonNull(previous)) {
+                Set<String> kept = Set.of(document.tokens());
+                for (String token : previous.tokens()) {
+                    if (!kept.contains(token)) {
+                        removePosting(token, id);
+                    }
+                }
+            }
+        }
+
+        void remove(Integer id) {
+            Document previous = documents.remove(id);
+            if (Objects.nonNull(previous)) {
+                for (String token : previous.tokens()) {
+                    removePosting(token, id);
+                }
+            }
+        }
+
+        void removeSpecialty(String specialty) {
+            List<String> tokens = new ArrayList<>();
+            addTokens(tokens, specialty);
+            Collection<Integer> candidates = tokens.isEmpty()
+                    ? List.copyOf(documents.keySet())
+                    : List.copyOf(postings.getOrDefault(tokens.get(0), new ConcurrentSkipListSet<>()));
+            for (Integer id : candidates) {
+                Document document = documents.get(id);
+                if (Objects.nonNull(document) && specialty.equals(document.developer().getSpecialty())) {
+                    remove(id);
+                }
+            }
+        }
+
+        private void removePosting(String token, Integer id) {
+            ConcurrentSkipListSet<Integer> ids = postings.get(token);
+            if (Objects.nonNull(ids)) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token, ids);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// the serving copy behind an in-memory view of the active developers: changes are applied to it as they commit,
+// and a rebuild streams the table into a fresh copy that gets the changes published meanwhile as well; a streamed
+// row such a change touched is skipped, the change already carries a newer state than the stream is reading
+final class DeveloperSnapshot<S> {
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    private volatile S current;
+    private S pending;
+    private RebuildConflicts pendingConflicts;
+
+    // null until the first rebuild finishes
+    S current() {
+        return current;
+    }
+
+    void onDeveloperChanged(DeveloperChangedEvent event, BiConsumer<S, DeveloperChangedEvent> apply) {
+        synchronized (writeLock) {
+            if (Objects.nonNull(current)) {
+                apply.accept(current, event);
+            }
+            if (Objects.nonNull(pending)) {
+                apply.accept(pending, event);
+                pendingConflicts.record(event);
+            }
+        }
+    }
+
+    // for changes that only name the developers: their state is read under the lock, so a change published meanwhile
+    // cannot be overtaken by an older read, and a running rebuild skips them like the developers of any other change
+    <T> void refresh(Collection<Integer> ids, Supplier<T> reader, BiConsumer<S, T> apply) {
+        synchronized (writeLock) {
+            if (Objects.isNull(current) && Objects.isNull(pending)) {
+                return;
+            }
+            T state = reader.get();
+            if (Objects.nonNull(current)) {
+                apply.accept(current, state);
+            }
+            if (Objects.nonNull(pending)) {
+                apply.accept(pending, state);
+                pendingConflicts.ids.addAll(ids);
+            }
+        }
+    }
+
+    // the loader streams the rows and offers each one, a rebuild already running makes this one a no-op
+    void rebuild(S rebuilt, Consumer<Offer> loader) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            RebuildConflicts conflicts = new RebuildConflicts();
+            synchronized (writeLock) {
+                pending = rebuilt;
+                pendingConflicts = conflicts;
+            }
+            loader.accept((id, specialty, put) -> {
+                synchronized (writeLock) {
+                    if (!conflicts.isSuperseded(id, specialty)) {
+                        put.run();
+                    }
+                }
+            });
+            synchronized (writeLock) {
+                current = rebuilt;
+            }
+        } finally {
+            synchronized (writeLock) {
+                pending = null;
+                pendingConflicts = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    @FunctionalInterface
+    interface Offer {
+        void offer(Integer id, String specialty, Runnable put);
+    }
+
+    private static final class RebuildConflicts {
+        private final Set<Integer> ids = new HashSet<>();
+        private final Set<String> deletedSpecialties = new HashSet<>();
+
+        void record(DeveloperChangedEvent event) {
+            if (Objects.nonNull(event.getSpecialty())) {
+                deletedSpecialties.add(event.getSpecialty());
+            }
+            ids.addAll(event.getIds());
+            event.getDevelopers().stream()
+                    .map(DeveloperEntity::getId)
+                    .forEach(ids::add);
+        }
+
+        boolean isSuperseded(Integer id, String specialty) {
+            return ids.contains(id) || deletedSpecialties.contains(specialty);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// inserts are applied to the counts in place; updates and deletes do not say what the rows were, so they drop the
+// snapshot and the next read runs the GROUP BY again. With lock-previous-row single row writes read the row they
+// change first and are applied in place too, at the price of a locking SELECT on every such write
+@Component
+public class DeveloperStatsTracker {
+    private static final Comparator<SpecialtyStatusCount> ORDER = Comparator
+            .comparing(SpecialtyStatusCount::getSpecialty, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SpecialtyStatusCount::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final DeveloperRepository developerRepository;
+    private final boolean incremental;
+    private final boolean lockPreviousRow;
+    private final long maxAgeNanos;
+    private final Object lock = new Object();
+
+    private Map<Key, Long> counts;
+    private long computedAt;
+    private long generation;
+    private int writesInFlight;
+
+    public DeveloperStatsTracker(DeveloperRepository developerRepository,
+                                 @Value("${developers.stats.incremental:true}") boolean incremental,
+                                 @Value("${developers.stats.lock-previous-row:false}") boolean lockPreviousRow,
+                                 @Value("${developers.stats.max-age:1h}") Duration maxAge) {
+        this.developerRepository = developerRepository;
+        this.incremental = incremental;
+        this.lockPreviousRow = lockPreviousRow;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public List<SpecialtyStatusCount> getStats() {
+        if (!incremental) {
+            return developerRepository.countBySpecialtyAndStatus();
+        }
+        long seenGeneration;
+        boolean writing;
+        synchronized (lock) {
+            if (Objects.nonNull(counts) && System.nanoTime() - computedAt < maxAgeNanos) {
+                return snapshot(counts);
+            }
+            seenGeneration = generation;
+            writing = writesInFlight > 0;
+        }
+        List<SpecialtyStatusCount> fresh = developerRepository.countBySpecialtyAndStatus();
+        synchronized (lock) {
+            // a write that was running or started while the query ran may or may not be in its result, and would
+            // be applied on top of it once committed, so the snapshot stays dirty
+            if (!writing && generation == seenGeneration) {
+                counts = toMap(fresh);
+                computedAt = System.nanoTime();
+            }
+        }
+        return fresh;
+    }
+
+    public boolean needsPreviousRows() {
+        synchronized (lock) {
+            return incremental && lockPreviousRow && Objects.nonNull(counts);
+        }
+    }
+
+    // writes publish inside their transaction; from here until the transaction has completed, and so until the
+    // committed write has been applied below, no count taken meanwhile is kept
+    @EventListener
+    public void onDeveloperChanging(DeveloperChangedEvent event) {
+        if (!incremental || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronized (lock) {
+            generation++;
+            writesInFlight++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock) {
+                    generation++;
+                    writesInFlight--;
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        synchronized (lock) {
+            generation++;
+            if (Objects.isNull(counts)) {
+                return;
+            }
+            if (event.getType() == DeveloperChangeType.CREATED) {
+                event.getDevelopers().forEach(developer -> add(developer.getSpecialty(), developer.getStatus(), 1));
+            } else if (!event.getPrevious().isEmpty() && event.getPrevious().size() == event.getIds().size()) {
+                applyPrevious(event);
+            } else {
+                counts = null;
+            }
+        }
+    }
+
+    private void applyPrevious(DeveloperChangedEvent event) {
+        Map<Integer, DeveloperEntity> current = new HashMap<>();
+        event.getDevelopers().forEach(developer -> current.put(developer.getId(), developer));
+        for (DeveloperEntity previous : event.getPrevious()) {
+            add(previous.getSpecialty(), previous.getStatus(), -1);
+            switch (event.getType()) {
+                case UPDATED -> {
+                    DeveloperEntity developer = current.get(previous.getId());
+                    add(developer.getSpecialty(), developer.getStatus(), 1);
+                }
+                case SOFT_DELETED -> add(previous.getSpecialty(), Status.DELETED, 1);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void add(String specialty, Status status, long delta) {
+        counts.merge(new Key(specialty, status), delta, (count, change) -> count + change == 0 ? null : count + change);
+    }
+
+    public void invalidate() {
+        synchronized (lock) {
+            generation++;
+            counts = null;
+        }
+    }
+
+    private static Map<Key, Long> toMap(List<SpecialtyStatusCount> rows) {
+        Map<Key, Long> map = new HashMap<>();
+        rows.forEach(row -> map.put(new Key(row.getSpecialty(), row.getStatus()), row.getCount()));
+        return map;
+    }
+
+    private static List<SpecialtyStatusCount> snapshot(Map<Key, Long> counts) {
+        List<SpecialtyStatusCount> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new SpecialtyStatusCount(key.specialty(), key.status(), count)));
+        rows.sort(ORDER);
+        return rows;
+    }
+
+    private record Key(String specialty, Status status) {
+    }
+}
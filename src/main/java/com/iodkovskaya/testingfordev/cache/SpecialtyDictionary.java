@@ -0,0 +1,306 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// process-wide copy of the specialties table: names resolve to codes through a hash map, codes to names through
+// an array indexed by the code, and every developer read from the database shares the one interned name instance.
+// The table is read and written on the caller's connection, so a writer never waits for a second one from the
+// pool it already holds one of. A name registered in a transaction joins it: other threads only see the code
+// after the commit, and a writer that rolls back leaves nothing behind. Without a transaction it is auto-committed.
+@Component
+public class SpecialtyDictionary {
+    private static final int MAX_INSERT_ATTEMPTS = 5;
+    // SQLState class of integrity constraint violations, drivers do not all throw the JDBC subclass for it
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    private final DataSource dataSource;
+    private final long reloadIntervalNanos;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private final Object loadLock = new Object();
+    private volatile String[] names = new String[0];
+    private volatile long loadedAt;
+
+    public SpecialtyDictionary(DataSource dataSource,
+                               @Value("${developers.specialties.reload-interval:1s}") Duration reloadInterval) {
+        this.dataSource = dataSource;
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.loadedAt = System.nanoTime() - reloadIntervalNanos;
+    }
+
+    // lookup only, for reads: an unknown specialty has no developers and must not grow the dictionary. Misses
+    // reload at most once per interval, a name registered by another node shows up here at most that late
+    public Optional<Short> findCode(String name) {
+        if (Objects.isNull(name)) {
+            return Optional.empty();
+        }
+        Short code = knownCode(name);
+        if (Objects.isNull(code) && System.nanoTime() - loadedAt >= reloadIntervalNanos) {
+            reload();
+            code = knownCode(name);
+        }
+        return Optional.ofNullable(code);
+    }
+
+    public boolean contains(String name) {
+        return findCode(name).isPresent();
+    }
+
+    // for writes that must not skip a name another node registered a moment ago: a miss always reloads
+    public boolean isRegistered(String name) {
+        if (Objects.isNull(name)) {
+            return false;
+        }
+        if (Objects.isNull(knownCode(name))) {
+            reload();
+        }
+        return Objects.nonNull(knownCode(name));
+    }
+
+    // memory only, for callers that must not block: empty when the name has not been loaded yet
+    public Optional<Short> findLoadedCode(String name) {
+        return Objects.isNull(name) ? Optional.empty() : Optional.ofNullable(codes.get(name));
+    }
+
+    // memory only, for callers that must not block: empty when the code has not been loaded yet
+    public Optional<String> findLoadedName(Short code) {
+        if (Objects.isNull(code)) {
+            return Optional.empty();
+        }
+        String[] current = names;
+        return code < current.length ? Optional.ofNullable(current[code]) : Optional.empty();
+    }
+
+    // registers the name on first use
+    public Short codeOf(String name) {
+        if (Objects.isNull(name)) {
+            return null;
+        }
+        Short code = knownCode(name);
+        return Objects.nonNull(code) ? code : register(name);
+    }
+
+    public String nameOf(Short code) {
+        if (Objects.isNull(code)) {
+            return null;
+        }
+        String name = knownName(code);
+        if (Objects.nonNull(name)) {
+            return name;
+        }
+        // registered by another node since the last load, a stored code always exists so this reload is not wasted
+        reload();
+        name = knownName(code);
+        if (Objects.nonNull(name)) {
+            return name;
+        }
+        throw new IllegalStateException("Unknown specialty code " + code);
+    }
+
+    // code to name in code order, as loaded: every name with a developer on it was loaded when that developer was read
+    public Map<Short, String> entries() {
+        String[] current = names;
+        Map<Short, String> entries = new LinkedHashMap<>();
+        for (short code = 0; code < current.length; code++) {
+            if (Objects.nonNull(current[code])) {
+                entries.put(code, current[code]);
+            }
+        }
+        return entries;
+    }
+
+    private Short register(String name) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            return registerInTransaction(name);
+        }
+        // the caller holds no connection here
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            Short code = insert(connection, name);
+            reload(connection, Map.of());
+            return code;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not register specialty " + name, e);
+        }
+    }
+
+    private Short registerInTransaction(String name) {
+        Map<String, Short> registered = registeredInTransaction();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Short code = insert(connection, name);
+            registered.put(name, code);
+            return code;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not register specialty " + name, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // an inserted row stays locked until the caller commits, so this never runs under loadLock: a writer of the
+    // same name or the same next code waits for that commit, and the committing thread may need the lock meanwhile
+    private static Short insert(Connection connection, String name) throws SQLException {
+        for (int attempt = 0; attempt < MAX_INSERT_ATTEMPTS; attempt++) {
+            Optional<Short> existing = selectCode(connection, name);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            // a failed statement aborts the whole transaction on some databases, the savepoint keeps the caller's
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO specialties (code, name) SELECT COALESCE(MAX(code), 0) + 1, CAST(? AS VARCHAR(255)) FROM specialties")) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                if (Objects.nonNull(savepoint)) {
+                    connection.rollback(savepoint);
+                }
+                // another writer took the next code or registered the same name first, look again
+                continue;
+            }
+            if (Objects.nonNull(savepoint)) {
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+        throw new IllegalStateException("Could not register specialty " + name);
+    }
+
+    // names this transaction registered, the other threads only get them once it has committed
+    @SuppressWarnings("unchecked")
+    private Map<String, Short> registeredInTransaction() {
+        Map<String, Short> registered = (Map<String, Short>) TransactionSynchronizationManager.getResource(this);
+        if (Objects.nonNull(registered)) {
+            return registered;
+        }
+        Map<String, Short> created = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (loadLock) {
+                    String[] loaded = names;
+                    for (Map.Entry<String, Short> entry : created.entrySet()) {
+                        loaded = put(loaded, names, entry.getValue(), entry.getKey());
+                    }
+                    names = loaded;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SpecialtyDictionary.this);
+            }
+        });
+        return created;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Short> registeredIfBound() {
+        return TransactionSynchronizationManager.getResource(this) instanceof Map<?, ?> registered
+                ? (Map<String, Short>) registered
+                : Map.of();
+    }
+
+    private Short knownCode(String name) {
+        Short code = codes.get(name);
+        return Objects.nonNull(code) ? code : registeredIfBound().get(name);
+    }
+
+    private String knownName(Short code) {
+        String[] current = names;
+        if (code < current.length && Objects.nonNull(current[code])) {
+            return current[code];
+        }
+        for (Map.Entry<String, Short> entry : registeredIfBound().entrySet()) {
+            if (code.equals(entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void reload() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            reload(connection, registeredIfBound());
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not load specialties", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // the caller's transaction sees the rows it registered itself, those wait for its commit
+    private void reload(Connection connection, Map<String, Short> uncommitted) throws SQLException {
+        synchronized (loadLock) {
+            String[] current = names;
+            String[] loaded = current;
+            try (PreparedStatement select = connection.prepareStatement("SELECT code, name FROM specialties");
+                 ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    String name = rows.getString(2);
+                    if (!uncommitted.containsKey(name)) {
+                        loaded = put(loaded, current, rows.getShort(1), name);
+                    }
+                }
+            }
+            names = loaded;
+            loadedAt = System.nanoTime();
+        }
+    }
+
+    // copies the array the first time it changes, readers keep working on the one they already have
+    private String[] put(String[] loaded, String[] current, short code, String name) {
+        if (code >= loaded.length) {
+            loaded = Arrays.copyOf(loaded, Math.max(code + 1, loaded.length * 2));
+        }
+        if (Objects.isNull(loaded[code])) {
+            // entries never change once written, the instance already handed out stays the shared one
+            if (loaded == current) {
+                loaded = current.clone();
+            }
+            loaded[code] = name;
+            codes.put(name, code);
+        }
+        return loaded;
+    }
+
+    private static boolean isConstraintViolation(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+                || (Objects.nonNull(e.getSQLState()) && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION));
+    }
+
+    private static Optional<Short> selectCode(Connection connection, String name) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT code FROM specialties WHERE name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next() ? Optional.of(rows.getShort(1)) : Optional.empty();
+            }
+        }
+    }
+}
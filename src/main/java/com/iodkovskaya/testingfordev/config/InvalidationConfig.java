@@ -0,0 +1,32 @@
+package com.iodkovskaya.testingfordev.config;
+
+import com.iodkovskaya.testingfordev.invalidation.InvalidationTransport;
+import com.iodkovskaya.testingfordev.invalidation.LoopbackInvalidationTransport;
+import com.iodkovskaya.testingfordev.invalidation.PostgresInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class InvalidationConfig {
+
+    // nodes sharing one PostgreSQL database tell each other about writes over LISTEN/NOTIFY
+    @Bean
+    @ConditionalOnProperty(name = "developers.invalidation.transport", havingValue = "postgres")
+    public InvalidationTransport postgresInvalidationTransport(
+            DataSource dataSource,
+            @Value("${developers.invalidation.channel:developer_invalidations}") String channel,
+            @Value("${developers.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        return new PostgresInvalidationTransport(dataSource, channel, reconnectDelay);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "developers.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+    public InvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+}
@@ -0,0 +1,19 @@
+package com.iodkovskaya.testingfordev.config;
+
+import com.iodkovskaya.testingfordev.metrics.SqlStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // putIfAbsent keeps an inspector set through spring.jpa.properties in charge
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(MeterRegistry meterRegistry) {
+        SqlStatementInspector inspector = new SqlStatementInspector(meterRegistry);
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
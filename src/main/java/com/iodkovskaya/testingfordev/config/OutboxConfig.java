@@ -0,0 +1,28 @@
+package com.iodkovskaya.testingfordev.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.outbox.LoggingOutboxSink;
+import com.iodkovskaya.testingfordev.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+@Configuration
+@ConditionalOnProperty(name = "developers.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    // the reactive write paths go through R2DBC and record no changes, an outbox there would silently miss them
+    public OutboxConfig(Environment environment) {
+        if (environment.acceptsProfiles(Profiles.of("reactive"))) {
+            throw new IllegalStateException("developers.outbox.enabled must be false with the reactive profile");
+        }
+    }
+
+    // an integration replaces the log sink by declaring its own OutboxSink bean as @Primary
+    @Bean
+    public OutboxSink loggingOutboxSink(ObjectMapper objectMapper) {
+        return new LoggingOutboxSink(objectMapper);
+    }
+}
@@ -0,0 +1,21 @@
+package com.iodkovskaya.testingfordev.config;
+
+// per-thread read-your-writes flag: while set, read-only transactions stay on the primary
+public final class PrimaryDataSourcePin {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryDataSourcePin() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
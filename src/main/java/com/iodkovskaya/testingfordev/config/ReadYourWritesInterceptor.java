@@ -0,0 +1,97 @@
+package com.iodkovskaya.testingfordev.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// a client that has just written reads from the primary until the replica has had time to apply its write; the
+// cookie is set before the handler runs because the response may already be committed afterwards, and the pin is
+// carried over to the async executor that runs streamed responses
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+    static final String COOKIE = "developers-primary-until";
+    private static final String PINNED_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".pinned";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration stickiness;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!READ_METHODS.contains(request.getMethod())) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, String.valueOf(now + stickiness.toMillis()))
+                    .path("/")
+                    .maxAge(stickiness)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            pin(request);
+        } else if (isFresh(primaryUntil(request), now)) {
+            pin(request);
+        }
+        return true;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (Objects.nonNull(request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+            PrimaryDataSourcePin.pin();
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        PrimaryDataSourcePin.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PrimaryDataSourcePin.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        PrimaryDataSourcePin.clear();
+    }
+
+    private static void pin(HttpServletRequest request) {
+        request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE);
+        PrimaryDataSourcePin.pin();
+    }
+
+    // the client controls the cookie, so a value further out than a write of this node could have set is ignored;
+    // a forged one then pins the client's reads for no longer than a real write would
+    private boolean isFresh(long primaryUntil, long now) {
+        return primaryUntil > now && primaryUntil <= now + stickiness.toMillis();
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (Objects.isNull(cookies)) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.iodkovskaya.testingfordev.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// read-only transactions go to the replica, everything else including work outside a transaction to the primary;
+// the flag is only set once the transaction has begun, so this has to sit behind a LazyConnectionDataSourceProxy
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryRoutes;
+    private final Counter pinnedRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.primaryRoutes = routes(meterRegistry, Route.PRIMARY, false);
+        this.pinnedRoutes = routes(meterRegistry, Route.PRIMARY, true);
+        this.replicaRoutes = routes(meterRegistry, Route.REPLICA, false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return Route.PRIMARY;
+        }
+        if (PrimaryDataSourcePin.isPinned()) {
+            pinnedRoutes.increment();
+            return Route.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, Route route, boolean pinned) {
+        return Counter.builder("developers.datasource.routes")
+                .description("Physical connections taken from each datasource, pinned ones are reads after the client's own write")
+                .tag("route", route.name().toLowerCase())
+                .tag("pinned", String.valueOf(pinned))
+                .register(meterRegistry);
+    }
+}
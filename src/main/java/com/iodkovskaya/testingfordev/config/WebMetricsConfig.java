@@ -0,0 +1,21 @@
+package com.iodkovskaya.testingfordev.config;
+
+import com.iodkovskaya.testingfordev.metrics.SqlStatementsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meterRegistry ->
+                registry.addInterceptor(new SqlStatementsInterceptor(meterRegistry)).addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.iodkovskaya.testingfordev.controller;
+
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.dto.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/developers/cache")
+@RequiredArgsConstructor
+public class DeveloperCacheController {
+    private final DeveloperCache developerCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "byId", CacheStatsDto.fromStats(developerCache.byIdStats(), developerCache.byIdSize()),
+                "byEmail", CacheStatsDto.fromStats(developerCache.byEmailStats(), developerCache.byEmailSize())));
+    }
+}
@@ -1,23 +1,61 @@
 package com.iodkovskaya.testingfordev.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.dto.BatchResultDto;
+import com.iodkovskaya.testingfordev.dto.DeveloperChangesDto;
+import com.iodkovskaya.testingfordev.dto.DeleteResultDto;
 import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.dto.DeveloperPageDto;
+import com.iodkovskaya.testingfordev.dto.DeveloperStatsDto;
 import com.iodkovskaya.testingfordev.dto.ErrorDto;
+import com.iodkovskaya.testingfordev.dto.ImportErrorDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperEventBroadcaster;
+import com.iodkovskaya.testingfordev.exception.ChangesPrunedException;
+import com.iodkovskaya.testingfordev.exception.DeveloperImportException;
 import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperVersionConflictException;
 import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.exception.InvalidCursorException;
+import com.iodkovskaya.testingfordev.exception.SearchIndexNotReadyException;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
 import com.iodkovskaya.testingfordev.service.DeveloperService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/v1/developers")
 @RequiredArgsConstructor
+@Profile("!reactive")
 public class DeveloperController {
-    private final DeveloperService developerService;
+    private static final Pattern VERSION_ETAG = Pattern.compile("\\s*\"(\\d{1,18})\"\\s*");
 
+    private final DeveloperService developerService;
+    private final ObjectMapper objectMapper;
+    private final DeveloperEventBroadcaster eventBroadcaster;
 
     @PostMapping
     public ResponseEntity<?> createDeveloper(@RequestBody DeveloperDto dto) {
@@ -35,28 +73,172 @@ public class DeveloperController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createDevelopers(@RequestBody List<DeveloperDto> dtos) {
+        List<DeveloperEntity> entities = dtos.stream()
+                .map(DeveloperDto::toEntity).toList();
+        BatchSaveResult result = developerService.saveDevelopers(entities);
+        return ResponseEntity.ok(BatchResultDto.fromResult(result));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importDevelopers(InputStream body) throws IOException {
+        try (MappingIterator<DeveloperDto> dtos = objectMapper.readerFor(DeveloperDto.class).readValues(body)) {
+            Iterator<DeveloperEntity> entities = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return dtos.hasNextValue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public DeveloperEntity next() {
+                    try {
+                        return dtos.nextValue().toEntity();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+            BatchSaveResult result = developerService.importDevelopers(entities);
+            return ResponseEntity.ok(BatchResultDto.fromResult(result));
+        } catch (DeveloperImportException e) {
+            // the records before the failing line are committed, the client resumes the import at that line
+            return ResponseEntity.badRequest()
+                    .body(ImportErrorDto.builder()
+                            .status(400)
+                            .message("Import body is not valid NDJSON")
+                            .line(failedLine(e))
+                            .imported(BatchResultDto.fromResult(e.getImported()))
+                            .build());
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorDto.builder()
+                            .status(400)
+                            .message("Import body is not valid NDJSON")
+                            .build());
+        }
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDevelopers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                developerService.exportDevelopers(entity -> {
+                    writeDeveloper(generator, DeveloperDto.fromEntity(entity));
+                    writeLineSeparator(generator);
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PutMapping
-    public ResponseEntity<?> updateDeveloper(@RequestBody DeveloperDto dto) {
+    public ResponseEntity<?> updateDeveloper(@RequestBody DeveloperDto dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             DeveloperEntity entity = dto.toEntity();
-            DeveloperEntity updatedEntity = developerService.updateDeveloper(entity);
+            DeveloperEntity updatedEntity;
+            if (Objects.isNull(ifMatch) || ifMatch.trim().equals("*")) {
+                updatedEntity = developerService.updateDeveloper(entity);
+            } else {
+                Matcher version = VERSION_ETAG.matcher(ifMatch);
+                // If-Match compares strongly, a weak or foreign tag can never match the current version
+                if (!version.matches()) {
+                    return preconditionFailed("If-Match must hold a single strong ETag of the developer");
+                }
+                updatedEntity = developerService.updateDeveloper(entity, Long.parseLong(version.group(1)));
+            }
             DeveloperDto result = DeveloperDto.fromEntity(updatedEntity);
-            return ResponseEntity.ok(result);
-        } catch (DeveloperNotFoundException e) {
+            return withEtag(ResponseEntity.ok(), updatedEntity.getVersion()).body(result);
+        } catch (DeveloperNotFoundException | DeveloperWithDuplicateEmailException e) {
             return ResponseEntity.badRequest()
                     .body(ErrorDto.builder()
                             .status(400)
                             .message(e.getMessage())
                             .build());
+        } catch (DeveloperVersionConflictException e) {
+            return preconditionFailed(e.getMessage());
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<DeveloperStatsDto> getStatistics() {
+        return ResponseEntity.ok(DeveloperStatsDto.fromCounts(developerService.getStatistics()));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                        @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(DeveloperChangesDto.fromPage(developerService.getChangesSince(since, limit)));
+        } catch (ChangesPrunedException e) {
+            return ResponseEntity
+                    .status(410)
+                    .body(ErrorDto.builder()
+                            .status(410)
+                            .message(e.getMessage())
+                            .build());
+        }
+    }
+
+    // live feed of committed changes; a client that reconnects catches up through /changes?since=<Last-Event-ID> first
+    @GetMapping("/events")
+    public ResponseEntity<ResponseBodyEmitter> streamEvents() throws IOException {
+        Optional<SseEmitter> emitter = eventBroadcaster.subscribe();
+        if (emitter.isEmpty()) {
+            // the emitter return value handler only accepts emitters, so the error body goes through one as well
+            ResponseBodyEmitter error = new ResponseBodyEmitter();
+            error.send(ErrorDto.builder()
+                    .status(503)
+                    .message("Too many event subscribers, try again later")
+                    .build(), MediaType.APPLICATION_JSON);
+            error.complete();
+            return ResponseEntity
+                    .status(503)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(error);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter.get());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchDevelopers(@RequestParam("q") String query,
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(developerService.searchDevelopers(query, limit));
+        } catch (SearchIndexNotReadyException e) {
+            return ResponseEntity
+                    .status(503)
+                    .body(ErrorDto.builder()
+                            .status(503)
+                            .message(e.getMessage())
+                            .build());
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDeveloperById(@PathVariable("id") Integer id) {
+    public ResponseEntity<?> getDeveloperById(@PathVariable("id") Integer id, WebRequest request) {
         try {
+            // a conditional read is answered from the version alone, without loading or serialising the developer
+            if (Objects.nonNull(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                Long version = developerService.getDeveloperVersion(id);
+                if (request.checkNotModified(etag(version))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version)).build();
+                }
+            }
             DeveloperEntity entity = developerService.getDeveloperById(id);
             DeveloperDto result = DeveloperDto.fromEntity(entity);
-            return ResponseEntity.ok(result);
+            return withEtag(ResponseEntity.ok(), entity.getVersion()).body(result);
         } catch (DeveloperNotFoundException e) {
             return ResponseEntity
                     .status(404)
@@ -68,19 +250,86 @@ public class DeveloperController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllDevelopers() {
-        List<DeveloperEntity> entities = developerService.getAllDevelopers();
-        List<DeveloperDto> dtos = entities.stream()
-                .map(DeveloperDto::fromEntity).toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<StreamingResponseBody> getAllDevelopers(WebRequest request) {
+        String etag = developerService.getListStamp().toEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                developerService.streamAllDevelopers(developer -> writeDeveloper(generator, developer));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getDevelopersPage(@RequestParam("limit") int limit,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               WebRequest request) {
+        try {
+            Integer afterId = DeveloperPageDto.decodeCursor(cursor);
+            DeveloperPage page = developerService.getActiveDevelopersPage(afterId, limit);
+            return pageResponse(page, request);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorDto.builder()
+                            .status(400)
+                            .message(e.getMessage())
+                            .build());
+        }
+    }
+
+    @GetMapping(value = "/specialty/{specialty}", params = "limit")
+    public ResponseEntity<?> getDevelopersBySpecialtyPage(@PathVariable("specialty") String specialty,
+                                                          @RequestParam("limit") int limit,
+                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                          WebRequest request) {
+        try {
+            Integer afterId = DeveloperPageDto.decodeCursor(cursor);
+            DeveloperPage page = developerService.getActiveBySpecialtyPage(specialty, afterId, limit);
+            return pageResponse(page, request);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorDto.builder()
+                            .status(400)
+                            .message(e.getMessage())
+                            .build());
+        }
     }
 
     @GetMapping("/specialty/{specialty}")
-    public ResponseEntity<?> getAllDevelopersBySpecialty(@PathVariable("specialty") String specialty) {
-        List<DeveloperEntity> entities = developerService.getAllActiveBySpecialty(specialty);
-        List<DeveloperDto> dtos = entities.stream()
-                .map(DeveloperDto::fromEntity).toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> getAllDevelopersBySpecialty(@PathVariable("specialty") String specialty, WebRequest request) {
+        // the stamp is taken before the list, a write in between leaves a newer list under an older stamp,
+        // which costs the client one more full response instead of a stale one
+        String etag = developerService.getListStamp().toEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<DeveloperDto> dtos = developerService.getAllActiveDtosBySpecialty(specialty);
+        return ResponseEntity.ok().eTag(etag).body(dtos);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> deleteDevelopers(@RequestParam(value = "ids", required = false) List<Integer> ids,
+                                              @RequestParam(value = "specialty", required = false) String specialty,
+                                              @RequestParam(value = "isHard", defaultValue = "false") boolean isHard) {
+        if (Objects.isNull(ids) == Objects.isNull(specialty)) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorDto.builder()
+                            .status(400)
+                            .message("Exactly one of ids or specialty must be defined")
+                            .build());
+        }
+        int affected = Objects.nonNull(ids)
+                ? developerService.deleteByIds(ids, isHard)
+                : developerService.deleteBySpecialty(specialty, isHard);
+        return ResponseEntity.ok(new DeleteResultDto(affected));
     }
 
     @DeleteMapping("/{id}")
@@ -100,4 +349,54 @@ public class DeveloperController {
                             .build());
         }
     }
+
+    private ResponseEntity<?> pageResponse(DeveloperPage page, WebRequest request) {
+        String etag = DeveloperPageDto.etag(page);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(DeveloperPageDto.fromPage(page));
+    }
+
+    private static Integer failedLine(DeveloperImportException e) {
+        Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+        if (cause instanceof JsonProcessingException json && Objects.nonNull(json.getLocation())) {
+            return json.getLocation().getLineNr();
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> preconditionFailed(String message) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ErrorDto.builder()
+                        .status(412)
+                        .message(message)
+                        .build());
+    }
+
+    // an update without If-Match does not learn the new version, that response simply has no ETag
+    private static ResponseEntity.BodyBuilder withEtag(ResponseEntity.BodyBuilder builder, Long version) {
+        return Objects.isNull(version) ? builder : builder.eTag(etag(version));
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private void writeDeveloper(JsonGenerator generator, DeveloperDto developer) {
+        try {
+            generator.writeObject(developer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLineSeparator(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.iodkovskaya.testingfordev.controller;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperJobDto;
+import com.iodkovskaya.testingfordev.dto.DeveloperJobRequestDto;
+import com.iodkovskaya.testingfordev.dto.ErrorDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.exception.DeveloperJobNotFoundException;
+import com.iodkovskaya.testingfordev.exception.InvalidDeveloperJobException;
+import com.iodkovskaya.testingfordev.job.DeveloperJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+// bulk operations run in the background, the job resource reports their progress
+@RestController
+@RequestMapping("/api/v1/developers/jobs")
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class DeveloperJobController {
+    private final DeveloperJobService developerJobService;
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody DeveloperJobRequestDto dto) {
+        try {
+            DeveloperJobEntity job = developerJobService.submit(dto.toEntity());
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{id}")
+                    .buildAndExpand(job.getId())
+                    .toUri();
+            return ResponseEntity.accepted()
+                    .location(location)
+                    .body(DeveloperJobDto.fromEntity(job));
+        } catch (InvalidDeveloperJobException e) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorDto.builder()
+                            .status(400)
+                            .message(e.getMessage())
+                            .build());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable("id") Long id) {
+        try {
+            return ResponseEntity.ok(DeveloperJobDto.fromEntity(developerJobService.getJob(id)));
+        } catch (DeveloperJobNotFoundException e) {
+            return ResponseEntity.status(404)
+                    .body(ErrorDto.builder()
+                            .status(404)
+                            .message(e.getMessage())
+                            .build());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.iodkovskaya.testingfordev.controller;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.dto.ErrorDto;
+import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.service.ReactiveDeveloperService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/developers")
+@RequiredArgsConstructor
+@Profile("reactive")
+public class ReactiveDeveloperController {
+    private final ReactiveDeveloperService reactiveDeveloperService;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createDeveloper(@RequestBody DeveloperDto dto) {
+        return reactiveDeveloperService.saveDeveloper(dto.toEntity())
+                .<ResponseEntity<?>>map(entity -> ResponseEntity.ok(DeveloperDto.fromEntity(entity)))
+                .onErrorResume(DeveloperWithDuplicateEmailException.class, e -> Mono.just(error(400, e.getMessage())));
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<?>> updateDeveloper(@RequestBody DeveloperDto dto) {
+        return reactiveDeveloperService.updateDeveloper(dto.toEntity())
+                .<ResponseEntity<?>>map(entity -> ResponseEntity.ok(DeveloperDto.fromEntity(entity)))
+                .onErrorResume(e -> e instanceof DeveloperNotFoundException || e instanceof DeveloperWithDuplicateEmailException,
+                        e -> Mono.just(error(400, e.getMessage())));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getDeveloperById(@PathVariable("id") Integer id) {
+        return reactiveDeveloperService.getDeveloperById(id)
+                .<ResponseEntity<?>>map(entity -> ResponseEntity.ok(DeveloperDto.fromEntity(entity)))
+                .onErrorResume(DeveloperNotFoundException.class, e -> Mono.just(error(404, e.getMessage())));
+    }
+
+    @GetMapping
+    public Flux<DeveloperDto> getAllDevelopers() {
+        return reactiveDeveloperService.getAllDevelopers()
+                .map(DeveloperDto::fromEntity);
+    }
+
+    @GetMapping("/specialty/{specialty}")
+    public Flux<DeveloperDto> getAllDevelopersBySpecialty(@PathVariable("specialty") String specialty) {
+        return reactiveDeveloperService.getAllActiveBySpecialty(specialty)
+                .map(DeveloperDto::fromEntity);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteDeveloperById(@PathVariable("id") Integer id, @RequestParam(value = "isHard", defaultValue = "false") boolean isHard) {
+        Mono<Void> deletion = isHard
+                ? reactiveDeveloperService.hardDeleteById(id)
+                : reactiveDeveloperService.softDeleteById(id);
+        return deletion
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.ok().build()))
+                .onErrorResume(DeveloperNotFoundException.class, e -> Mono.just(error(400, e.getMessage())));
+    }
+
+    private ResponseEntity<?> error(int status, String message) {
+        return ResponseEntity.status(status)
+                .body(ErrorDto.builder()
+                        .status(status)
+                        .message(message)
+                        .build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.iodkovskaya.testingfordev.controller;
+
+import com.iodkovskaya.testingfordev.dto.SpecialtyDto;
+import com.iodkovskaya.testingfordev.service.DeveloperService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/specialties")
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class SpecialtyController {
+    private final DeveloperService developerService;
+
+    @GetMapping
+    public ResponseEntity<List<SpecialtyDto>> getSpecialties() {
+        return ResponseEntity.ok(developerService.getSpecialties().stream()
+                .map(SpecialtyDto::fromCount)
+                .toList());
+    }
+}
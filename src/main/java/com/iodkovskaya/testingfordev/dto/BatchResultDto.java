@@ -0,0 +1,36 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.iodkovskaya.testingfordev.model.BatchItemResult;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+    private long processed;
+    private long created;
+    private long duplicates;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BatchItemResult> items;
+
+    public static BatchResultDto fromResult(BatchSaveResult result) {
+        return BatchResultDto.builder()
+                .processed(result.getProcessed())
+                .created(result.getCreated())
+                .duplicates(result.getDuplicates())
+                .elapsedMillis(result.getElapsedNanos() / 1_000_000)
+                .rowsPerSecond(result.getRowsPerSecond())
+                .items(result.getItems())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteResultDto {
+    private int affected;
+}
@@ -0,0 +1,32 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperChangeDto {
+    private long seq;
+    private Integer id;
+    private DeveloperChangeType type;
+    private boolean deleted;
+    private DeveloperDto developer;
+
+    public static DeveloperChangeDto fromChange(DeveloperChange change) {
+        return DeveloperChangeDto.builder()
+                .seq(change.getSeq())
+                .id(change.getDeveloperId())
+                .type(change.getType())
+                .deleted(change.isTombstone())
+                .developer(change.isTombstone() ? null : DeveloperDto.fromEntity(change.getDeveloper()))
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperChangesDto {
+    private List<DeveloperChangeDto> changes;
+    private long nextSince;
+    private boolean hasMore;
+
+    public static DeveloperChangesDto fromPage(DeveloperChangesPage page) {
+        return DeveloperChangesDto.builder()
+                .changes(page.getChanges().stream()
+                        .map(DeveloperChangeDto::fromChange).toList())
+                .nextSince(page.getNextSince())
+                .hasMore(page.isHasMore())
+                .build();
+    }
+}
@@ -26,6 +26,7 @@ public class DeveloperDto {
                 .id(id)
                 .firstName(firstName)
                 .lastName(lastName)
+                .email(email)
                 .specialty(specialty)
                 .status(status)
                 .build();
@@ -36,6 +37,7 @@ public class DeveloperDto {
                 .id(developer.getId())
                 .firstName(developer.getFirstName())
                 .lastName(developer.getLastName())
+                .email(developer.getEmail())
                 .specialty(developer.getSpecialty())
                 .status(developer.getStatus())
                 .build();
@@ -0,0 +1,33 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperEventDto {
+    private DeveloperChangeType type;
+    private List<Integer> ids;
+    private List<DeveloperDto> developers;
+    private String specialty;
+
+    public static DeveloperEventDto fromEvent(DeveloperChangedEvent event) {
+        return DeveloperEventDto.builder()
+                .type(event.getType())
+                .ids(event.getIds())
+                .developers(event.getDevelopers().stream()
+                        .map(DeveloperDto::fromEntity).toList())
+                .specialty(event.getSpecialty())
+                .build();
+    }
+}
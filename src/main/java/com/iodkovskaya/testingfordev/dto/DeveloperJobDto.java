@@ -0,0 +1,75 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeveloperJobDto {
+    private Long id;
+    private DeveloperJobType type;
+    private DeveloperJobStatus status;
+    private String specialty;
+    private String emailDomain;
+    private String targetSpecialty;
+    private Long processed;
+    private Long affected;
+    private Long total;
+    private Double progress;
+    private Double rowsPerSecond;
+    private Long etaSeconds;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static DeveloperJobDto fromEntity(DeveloperJobEntity job) {
+        DeveloperJobDto dto = DeveloperJobDto.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .specialty(job.getSpecialty())
+                .emailDomain(job.getEmailDomain())
+                .targetSpecialty(job.getTargetSpecialty())
+                .processed(job.getProcessed())
+                .affected(job.getAffected())
+                .total(job.getTotal())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+        if (job.getStatus() == DeveloperJobStatus.COMPLETED) {
+            dto.setProgress(100.0);
+        } else if (job.getTotal() > 0) {
+            // the total is counted when the job starts, developers created later may push processed past it
+            dto.setProgress(Math.min(99.9, Math.floor(1000.0 * job.getProcessed() / job.getTotal()) / 10));
+        }
+        // the rate only covers the current run, a resumed job does not count the rows of the previous one
+        if (Objects.nonNull(job.getResumedAt()) && Objects.nonNull(job.getHeartbeatAt())) {
+            long millis = Duration.between(job.getResumedAt(), job.getHeartbeatAt()).toMillis();
+            long rows = job.getProcessed() - job.getProcessedAtResume();
+            if (millis > 0 && rows > 0) {
+                double rate = rows * 1000.0 / millis;
+                dto.setRowsPerSecond(rate);
+                if (job.getStatus() == DeveloperJobStatus.RUNNING) {
+                    dto.setEtaSeconds((long) Math.ceil(Math.max(0, job.getTotal() - job.getProcessed()) / rate));
+                }
+            }
+        }
+        return dto;
+    }
+}
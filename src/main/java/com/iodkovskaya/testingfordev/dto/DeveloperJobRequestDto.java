@@ -0,0 +1,28 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperJobRequestDto {
+    private DeveloperJobType type;
+    private String specialty;
+    private String emailDomain;
+    private String targetSpecialty;
+
+    public DeveloperJobEntity toEntity() {
+        return DeveloperJobEntity.builder()
+                .type(type)
+                .specialty(specialty)
+                .emailDomain(emailDomain)
+                .targetSpecialty(targetSpecialty)
+                .build();
+    }
+}
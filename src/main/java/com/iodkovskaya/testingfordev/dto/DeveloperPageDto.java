@@ -0,0 +1,83 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.exception.InvalidCursorException;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperPageDto {
+    private static final String CURSOR_PREFIX = "id:";
+    private static final int ETAG_BYTES = 16;
+
+    private List<DeveloperDto> items;
+    private String nextCursor;
+
+    public static DeveloperPageDto fromPage(DeveloperPage page) {
+        return DeveloperPageDto.builder()
+                .items(page.getDevelopers().stream()
+                        .map(DeveloperDto::fromEntity).toList())
+                .nextCursor(page.hasNext() ? encodeCursor(page.getNextAfterId()) : null)
+                .build();
+    }
+
+    // every write bumps the version, so ids and versions of the rows on the page are enough to tell it changed;
+    // a strong ETag promises a byte-identical body, so they go through a digest rather than a hash that can collide
+    public static String etag(DeveloperPage page) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+        for (DeveloperEntity developer : page.getDevelopers()) {
+            buffer.clear();
+            buffer.putInt(Objects.requireNonNullElse(developer.getId(), 0))
+                    .putLong(Objects.requireNonNullElse(developer.getVersion(), -1L));
+            digest.update(buffer.array());
+        }
+        digest.update(String.valueOf(page.getNextAfterId()).getBytes(StandardCharsets.UTF_8));
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, ETAG_BYTES) + "\"";
+    }
+
+    public static String encodeCursor(Integer afterId) {
+        byte[] raw = (CURSOR_PREFIX + afterId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static Integer decodeCursor(String cursor) {
+        if (Objects.isNull(cursor) || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursorException("Cursor is malformed");
+            }
+            return Integer.valueOf(raw.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor is malformed");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
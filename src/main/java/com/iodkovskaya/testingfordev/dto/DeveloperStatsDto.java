@@ -0,0 +1,38 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+@Data
+@AllArgsConstructor
+public class DeveloperStatsDto {
+    private static final String UNSPECIFIED = "unspecified";
+
+    private long total;
+    private Map<Status, Long> byStatus;
+    private Map<String, Map<Status, Long>> bySpecialty;
+
+    public static DeveloperStatsDto fromCounts(List<SpecialtyStatusCount> counts) {
+        long total = 0;
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        Map<String, Map<Status, Long>> bySpecialty = new TreeMap<>();
+        for (SpecialtyStatusCount count : counts) {
+            total += count.getCount();
+            if (Objects.nonNull(count.getStatus())) {
+                byStatus.merge(count.getStatus(), count.getCount(), Long::sum);
+                bySpecialty.computeIfAbsent(Objects.requireNonNullElse(count.getSpecialty(), UNSPECIFIED),
+                                specialty -> new EnumMap<>(Status.class))
+                        .merge(count.getStatus(), count.getCount(), Long::sum);
+            }
+        }
+        return new DeveloperStatsDto(total, byStatus, bySpecialty);
+    }
+}
@@ -0,0 +1,27 @@
+package com.iodkovskaya.testingfordev.dto;
+
+import com.iodkovskaya.testingfordev.model.SpecialtyCount;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecialtyDto {
+    private Short code;
+    private String name;
+    private long activeDevelopers;
+    private long totalDevelopers;
+
+    public static SpecialtyDto fromCount(SpecialtyCount count) {
+        return SpecialtyDto.builder()
+                .code(count.getCode())
+                .name(count.getName())
+                .activeDevelopers(count.getActive())
+                .totalDevelopers(count.getTotal())
+                .build();
+    }
+}
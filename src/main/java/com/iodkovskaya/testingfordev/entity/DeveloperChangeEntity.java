@@ -0,0 +1,43 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// one row per developer touched by a write; rows are only ever inserted, moved over from the staging table
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "developer_changes")
+public class DeveloperChangeEntity {
+    // an identity column instead of a pooled sequence, so instances do not hand out interleaved blocks
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+    private Integer developerId;
+    @Column(name = "change_type")
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private DeveloperChangeType type;
+    private Instant changedAt;
+    // the row as the write left it, so a consumer never sees a later state under an earlier seq
+    private String email;
+    private String firstName;
+    private String lastName;
+    @Convert(converter = SpecialtyConverter.class)
+    @Column(name = "specialty_code")
+    private String specialty;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Status status;
+    private Long version;
+}
@@ -0,0 +1,23 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a single row every committing writer locks, which makes handing out seqs and committing them one step; it also
+// remembers up to which seq the retention has pruned developer_changes
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "developer_change_locks")
+public class DeveloperChangeLockEntity {
+    @Id
+    private String name;
+    private long prunedThrough;
+}
@@ -0,0 +1,42 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// changes of a transaction that has not committed yet; they are moved to developer_changes right before the commit,
+// so no other transaction ever sees a row here
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "developer_change_staging")
+public class DeveloperChangeStagingEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Integer developerId;
+    @Column(name = "change_type")
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private DeveloperChangeType type;
+    private Instant changedAt;
+    private String email;
+    private String firstName;
+    private String lastName;
+    @Convert(converter = SpecialtyConverter.class)
+    @Column(name = "specialty_code")
+    private String specialty;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private Status status;
+    private Long version;
+}
@@ -5,21 +5,36 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "developers")
+@Table(name = "developers", indexes = {
+        @Index(name = "idx_developers_specialty_status", columnList = "specialty_code, status"),
+        @Index(name = "ux_developers_email", columnList = "email", unique = true)
+})
 public class DeveloperEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "developers_seq")
+    @SequenceGenerator(name = "developers_seq", sequenceName = "developers_seq", allocationSize = 50)
     private Integer id;
     private String email;
     private String firstName;
     private String lastName;
+    // a few dozen names repeat across all rows, the column holds the dictionary code instead
+    @Convert(converter = SpecialtyConverter.class)
+    @Column(name = "specialty_code")
     private String specialty;
+    // plain varchar instead of H2's native enum so the R2DBC driver can bind it as well
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private Status status;
+    // bumped by every write including the bulk UPDATE queries, clients see it as the ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
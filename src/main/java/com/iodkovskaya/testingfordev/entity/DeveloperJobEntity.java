@@ -0,0 +1,54 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// a bulk operation and its checkpoint; every chunk commits its changes together with lastId and the counters,
+// so after a restart the job continues behind the last committed chunk instead of starting over
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "developer_jobs", indexes = @Index(name = "idx_developer_jobs_status", columnList = "status"))
+public class DeveloperJobEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private DeveloperJobType type;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private DeveloperJobStatus status;
+    // filter: active developers of the specialty and/or with an email in the domain
+    private String specialty;
+    private String emailDomain;
+    private String targetSpecialty;
+    // keyset checkpoint, every matching developer up to this id has been handled
+    private Integer lastId;
+    // developers visited, developers changed, and the visits expected when the job first started
+    private long processed;
+    private long affected;
+    private long total;
+    private Instant createdAt;
+    private Instant startedAt;
+    // the rate is measured from the current run only, time spent queued or down does not count
+    private Instant resumedAt;
+    private long processedAtResume;
+    // refreshed by every chunk; a running job whose heartbeat stops is taken over by another runner
+    private Instant heartbeatAt;
+    private Instant finishedAt;
+    private String owner;
+    private String error;
+    // a runner that lost the job to another one fails its next checkpoint instead of writing over it
+    @Version
+    private Long version;
+}
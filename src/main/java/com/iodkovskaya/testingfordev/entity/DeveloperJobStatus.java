@@ -0,0 +1,5 @@
+package com.iodkovskaya.testingfordev.entity;
+
+public enum DeveloperJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,5 @@
+package com.iodkovskaya.testingfordev.entity;
+
+public enum DeveloperJobType {
+    MOVE_SPECIALTY, SOFT_DELETE
+}
@@ -0,0 +1,53 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC mapping of the developers table created for DeveloperEntity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("developers")
+public class DeveloperRow {
+    @Id
+    private Integer id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    // code of the specialties dictionary, the service resolves it like SpecialtyConverter does for JPA
+    @Column("specialty_code")
+    private Short specialtyCode;
+    private Status status;
+    // maintained by the SQL itself rather than by Spring Data, same as the JPQL bulk updates do
+    private Long version;
+
+    public DeveloperEntity toEntity(String specialty) {
+        return DeveloperEntity.builder()
+                .id(id)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .specialty(specialty)
+                .status(status)
+                .version(version)
+                .build();
+    }
+
+    public static DeveloperRow fromEntity(DeveloperEntity developer, Short specialtyCode) {
+        return DeveloperRow.builder()
+                .id(developer.getId())
+                .email(developer.getEmail())
+                .firstName(developer.getFirstName())
+                .lastName(developer.getLastName())
+                .specialtyCode(specialtyCode)
+                .status(developer.getStatus())
+                .version(developer.getVersion())
+                .build();
+    }
+}
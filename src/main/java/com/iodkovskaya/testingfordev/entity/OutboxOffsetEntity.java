@@ -0,0 +1,26 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// how far a relay has drained developer_changes; while claimedUntil lies ahead a relay is publishing the batch
+// after lastSeq and other instances keep away from it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_offsets")
+public class OutboxOffsetEntity {
+    @Id
+    private String name;
+    private long lastSeq;
+    private Instant claimedUntil;
+}
@@ -0,0 +1,25 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// created through Spring's bean container for Hibernate, which is what lets it take the dictionary
+@Converter
+public class SpecialtyConverter implements AttributeConverter<String, Short> {
+    private final SpecialtyDictionary specialtyDictionary;
+
+    public SpecialtyConverter(SpecialtyDictionary specialtyDictionary) {
+        this.specialtyDictionary = specialtyDictionary;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String specialty) {
+        return specialtyDictionary.codeOf(specialty);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return specialtyDictionary.nameOf(code);
+    }
+}
@@ -0,0 +1,24 @@
+package com.iodkovskaya.testingfordev.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// dictionary of specialty names; developers only store the code, SpecialtyDictionary maintains the rows
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "specialties")
+public class SpecialtyEntity {
+    @Id
+    private Short code;
+    @Column(nullable = false, unique = true)
+    private String name;
+}
@@ -0,0 +1,8 @@
+package com.iodkovskaya.testingfordev.event;
+
+public enum DeveloperChangeType {
+    CREATED,
+    UPDATED,
+    SOFT_DELETED,
+    HARD_DELETED
+}
@@ -0,0 +1,62 @@
+package com.iodkovskaya.testingfordev.event;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+
+// published by the write paths; created and updated changes carry the rows, deletes only what is known about them:
+// the ids, or for a bulk delete by specialty just the specialty, so that path does not have to select ids first.
+// single row writes also carry the row as it was before, bulk writes leave previous empty
+@Getter
+@ToString
+@AllArgsConstructor
+public class DeveloperChangedEvent {
+    private final DeveloperChangeType type;
+    private final List<Integer> ids;
+    private final List<DeveloperEntity> developers;
+    private final String specialty;
+    private final List<DeveloperEntity> previous;
+
+    public DeveloperChangedEvent(DeveloperChangeType type, List<Integer> ids, List<DeveloperEntity> developers, String specialty) {
+        this(type, ids, developers, specialty, List.of());
+    }
+
+    public static DeveloperChangedEvent created(List<DeveloperEntity> developers) {
+        return new DeveloperChangedEvent(DeveloperChangeType.CREATED,
+                developers.stream().map(DeveloperEntity::getId).toList(), List.copyOf(developers), null);
+    }
+
+    public static DeveloperChangedEvent updated(DeveloperEntity developer) {
+        return new DeveloperChangedEvent(DeveloperChangeType.UPDATED, List.of(developer.getId()), List.of(developer), null);
+    }
+
+    public static DeveloperChangedEvent updated(DeveloperEntity developer, DeveloperEntity previous) {
+        return new DeveloperChangedEvent(DeveloperChangeType.UPDATED, List.of(developer.getId()), List.of(developer), null,
+                List.of(previous));
+    }
+
+    public static DeveloperChangedEvent updated(List<DeveloperEntity> developers) {
+        return new DeveloperChangedEvent(DeveloperChangeType.UPDATED,
+                developers.stream().map(DeveloperEntity::getId).toList(), List.copyOf(developers), null);
+    }
+
+    public static DeveloperChangedEvent deleted(Collection<Integer> ids, boolean isHard) {
+        return new DeveloperChangedEvent(deleteType(isHard), List.copyOf(ids), List.of(), null);
+    }
+
+    public static DeveloperChangedEvent deleted(DeveloperEntity previous, boolean isHard) {
+        return new DeveloperChangedEvent(deleteType(isHard), List.of(previous.getId()), List.of(), null, List.of(previous));
+    }
+
+    public static DeveloperChangedEvent deletedBySpecialty(String specialty, boolean isHard) {
+        return new DeveloperChangedEvent(deleteType(isHard), List.of(), List.of(), specialty);
+    }
+
+    private static DeveloperChangeType deleteType(boolean isHard) {
+        return isHard ? DeveloperChangeType.HARD_DELETED : DeveloperChangeType.SOFT_DELETED;
+    }
+}
@@ -0,0 +1,168 @@
+package com.iodkovskaya.testingfordev.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.dto.DeveloperEventDto;
+import com.iodkovskaya.testingfordev.service.DeveloperChangeLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// fans committed changes out to SSE subscribers: every event is serialised once into a frame that all subscribers
+// share, each subscriber drains its own bounded queue on a virtual thread, and a subscriber whose queue is full
+// is dropped so that a slow client never blocks the committing thread. The event id is the last developer_changes
+// seq of the committed write, so a client's Last-Event-ID is the since it resumes /changes from
+@Component
+@Profile("!reactive")
+public class DeveloperEventBroadcaster {
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event()
+            .comment("heartbeat")
+            .build();
+
+    private final ObjectMapper objectMapper;
+    private final DeveloperChangeLog developerChangeLog;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter dropped;
+
+    public DeveloperEventBroadcaster(ObjectMapper objectMapper,
+                                     DeveloperChangeLog developerChangeLog,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${developers.events.buffer-size:256}") int bufferSize,
+                                     @Value("${developers.events.max-subscribers:10000}") int maxSubscribers,
+                                     @Value("${developers.events.timeout:30m}") Duration timeout,
+                                     @Value("${developers.events.heartbeat:15s}") Duration heartbeat) {
+        this.objectMapper = objectMapper;
+        this.developerChangeLog = developerChangeLog;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatMillis = heartbeat.toMillis();
+        Gauge.builder("developers.events.subscribers", subscribers, Set::size)
+                .description("Open SSE subscriptions to developer changes")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("developers.events.dropped")
+                .description("SSE subscribers dropped because they fell behind")
+                .register(meterRegistry);
+    }
+
+    // empty when the subscriber limit is reached
+    public Optional<SseEmitter> subscribe() {
+        return register(new SseEmitter(timeoutMillis));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    Optional<SseEmitter> register(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        subscribers.add(subscriber);
+        developerChangeLog.watchSeqs();
+        subscriber.thread = Thread.ofVirtual()
+                .name("developer-events-", subscriber.hashCode())
+                .start(() -> pump(subscriber));
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // a subscriber that joined while the write was committing may get a frame without an id, its client then
+        // resumes from the id before and sees this change twice rather than not at all
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        developerChangeLog.getCommittedSeq().ifPresent(seq -> builder.id(String.valueOf(seq)));
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = builder
+                .name(event.getType().name())
+                .data(serialize(event), MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(frame)) {
+                dropped.increment();
+                close(subscriber);
+            }
+        }
+    }
+
+    private String serialize(DeveloperChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(DeveloperEventDto.fromEvent(event));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void pump(Subscriber subscriber) {
+        try {
+            while (subscriber.open) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame =
+                        subscriber.queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                // the heartbeat also notices clients that went away without closing the connection
+                subscriber.emitter.send(Objects.requireNonNullElse(frame, HEARTBEAT));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client is gone or the emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            forget(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.open = false;
+        if (forget(subscriber) && Objects.nonNull(subscriber.thread)) {
+            subscriber.thread.interrupt();
+        }
+    }
+
+    private boolean forget(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        developerChangeLog.unwatchSeqs();
+        return true;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private volatile boolean open = true;
+        private volatile Thread thread;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
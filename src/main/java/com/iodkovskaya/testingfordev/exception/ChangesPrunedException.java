@@ -0,0 +1,8 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class ChangesPrunedException extends RuntimeException {
+    public ChangesPrunedException(long prunedThrough) {
+        super("Changes up to sequence " + prunedThrough + " are no longer kept, reload the developers and follow "
+                + "the changes from a sequence of at least " + prunedThrough);
+    }
+}
@@ -0,0 +1,15 @@
+package com.iodkovskaya.testingfordev.exception;
+
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import lombok.Getter;
+
+// the import stopped at a record it could not read; everything before that record is committed
+@Getter
+public class DeveloperImportException extends RuntimeException {
+    private final BatchSaveResult imported;
+
+    public DeveloperImportException(BatchSaveResult imported, Throwable cause) {
+        super(cause.getMessage(), cause);
+        this.imported = imported;
+    }
+}
@@ -0,0 +1,7 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class DeveloperJobNotFoundException extends RuntimeException {
+    public DeveloperJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class DeveloperVersionConflictException extends RuntimeException {
+    public DeveloperVersionConflictException(String message) {
+        super(message);
+    }
+}
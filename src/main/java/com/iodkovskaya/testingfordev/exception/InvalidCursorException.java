@@ -0,0 +1,7 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
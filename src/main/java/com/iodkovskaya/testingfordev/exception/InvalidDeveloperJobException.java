@@ -0,0 +1,7 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class InvalidDeveloperJobException extends RuntimeException {
+    public InvalidDeveloperJobException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.iodkovskaya.testingfordev.exception;
+
+public class SearchIndexNotReadyException extends RuntimeException {
+    public SearchIndexNotReadyException() {
+        super("Search index is still being built");
+    }
+}
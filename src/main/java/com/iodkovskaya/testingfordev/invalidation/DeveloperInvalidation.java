@@ -0,0 +1,20 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+// one coalesced batch of keys; sentAt is when the oldest key in it was recorded, so the lag measured by the
+// receiver includes the time the key waited for the batch
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperInvalidation {
+    private String node;
+    private long sentAt;
+    private boolean all;
+    private Set<Integer> ids;
+    private Set<String> emails;
+}
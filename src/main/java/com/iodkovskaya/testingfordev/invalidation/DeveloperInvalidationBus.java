@@ -0,0 +1,245 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.DeveloperStatsTracker;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+// tells the other nodes which developers this node changed so they evict them from their DeveloperCache, refresh
+// them in their search index and count their statistics again; keys are collected after commit, coalesced until
+// the next flush and sent in batches of at most max-keys
+@Component
+public class DeveloperInvalidationBus {
+    private final DeveloperCache developerCache;
+    private final DeveloperSearchIndex developerSearchIndex;
+    private final DeveloperStatsTracker developerStatsTracker;
+    private final InvalidationTransport transport;
+    private final ObjectMapper objectMapper;
+    private final int maxKeys;
+    private final String node = UUID.randomUUID().toString();
+    private final Object lock = new Object();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter gaps;
+    private final Counter failures;
+    private final Timer lag;
+
+    private Set<Integer> pendingIds = new LinkedHashSet<>();
+    private Set<String> pendingEmails = new LinkedHashSet<>();
+    private boolean pendingAll;
+    private long oldestPendingAt;
+
+    public DeveloperInvalidationBus(DeveloperCache developerCache,
+                                    DeveloperSearchIndex developerSearchIndex,
+                                    DeveloperStatsTracker developerStatsTracker,
+                                    InvalidationTransport transport,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${developers.invalidation.max-keys:200}") int maxKeys) {
+        this.developerCache = developerCache;
+        this.developerSearchIndex = developerSearchIndex;
+        this.developerStatsTracker = developerStatsTracker;
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.maxKeys = maxKeys;
+        this.sent = Counter.builder("developers.invalidation.sent")
+                .description("Invalidation batches sent to other nodes")
+                .register(meterRegistry);
+        this.received = Counter.builder("developers.invalidation.received")
+                .description("Invalidation batches applied from other nodes")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("developers.invalidation.gaps")
+                .description("Times the transport may have lost invalidations and the cache was cleared")
+                .register(meterRegistry);
+        this.failures = Counter.builder("developers.invalidation.failures")
+                .description("Flushes the transport failed, peers are told to drop everything on the next one")
+                .register(meterRegistry);
+        this.lag = Timer.builder("developers.invalidation.lag")
+                .description("Time from a write on one node to the eviction on another")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        transport.subscribe(this::onMessage, this::onGap);
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeveloperChanged(DeveloperChangedEvent event) {
+        boolean full;
+        synchronized (lock) {
+            if (isEmpty()) {
+                oldestPendingAt = System.currentTimeMillis();
+            }
+            if (Objects.nonNull(event.getSpecialty())) {
+                // a bulk delete by specialty does not know its ids, peers drop everything like this node does
+                pendingAll = true;
+            }
+            if (!pendingAll) {
+                pendingIds.addAll(event.getIds());
+                for (DeveloperEntity developer : event.getDevelopers()) {
+                    if (Objects.nonNull(developer.getEmail())) {
+                        pendingEmails.add(developer.getEmail());
+                    }
+                }
+            }
+            full = pendingIds.size() + pendingEmails.size() >= maxKeys;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${developers.invalidation.flush-interval:PT0.05S}")
+    public void flush() {
+        List<DeveloperInvalidation> batches;
+        long pendingSince;
+        synchronized (lock) {
+            if (isEmpty()) {
+                return;
+            }
+            batches = pendingAll
+                    ? List.of(new DeveloperInvalidation(node, oldestPendingAt, true, Set.of(), Set.of()))
+                    : split(pendingIds, pendingEmails, oldestPendingAt);
+            pendingIds = new LinkedHashSet<>();
+            pendingEmails = new LinkedHashSet<>();
+            pendingAll = false;
+            pendingSince = oldestPendingAt;
+        }
+        try {
+            batches.forEach(this::send);
+        } catch (RuntimeException e) {
+            // some batches may already be out, which keys the peers still hold is unknown, so they drop everything
+            synchronized (lock) {
+                if (isEmpty() || pendingSince < oldestPendingAt) {
+                    oldestPendingAt = pendingSince;
+                }
+                pendingAll = true;
+                pendingIds = new LinkedHashSet<>();
+                pendingEmails = new LinkedHashSet<>();
+            }
+            failures.increment();
+        }
+    }
+
+    // long emails can push a batch over the transport's payload limit, such a batch goes out in halves
+    private void send(DeveloperInvalidation batch) {
+        String payload = serialize(batch);
+        int keys = batch.getIds().size() + batch.getEmails().size();
+        if (keys > 1 && payload.getBytes(StandardCharsets.UTF_8).length > transport.maxPayloadBytes()) {
+            List<Object> all = new ArrayList<>(batch.getIds());
+            all.addAll(batch.getEmails());
+            send(subBatch(batch, all.subList(0, keys / 2)));
+            send(subBatch(batch, all.subList(keys / 2, keys)));
+            return;
+        }
+        transport.send(payload);
+        sent.increment();
+    }
+
+    private DeveloperInvalidation subBatch(DeveloperInvalidation batch, List<Object> keys) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+        for (Object key : keys) {
+            if (key instanceof Integer id) {
+                ids.add(id);
+            } else {
+                emails.add((String) key);
+            }
+        }
+        return new DeveloperInvalidation(batch.getNode(), batch.getSentAt(), false, ids, emails);
+    }
+
+    private void onMessage(String payload) {
+        DeveloperInvalidation invalidation = deserialize(payload);
+        if (node.equals(invalidation.getNode())) {
+            return;
+        }
+        if (invalidation.isAll()) {
+            dropAll();
+        } else {
+            invalidation.getIds().forEach(developerCache::evict);
+            invalidation.getEmails().forEach(developerCache::evictEmail);
+            developerStatsTracker.invalidate();
+            developerSearchIndex.refresh(invalidation.getIds());
+        }
+        received.increment();
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - invalidation.getSentAt())));
+    }
+
+    private void onGap() {
+        dropAll();
+        gaps.increment();
+    }
+
+    // the search index has no ids to refresh, it is built again from the table
+    private void dropAll() {
+        developerCache.evictAll();
+        developerStatsTracker.invalidate();
+        developerSearchIndex.warmUp();
+    }
+
+    private boolean isEmpty() {
+        return !pendingAll && pendingIds.isEmpty() && pendingEmails.isEmpty();
+    }
+
+    private List<DeveloperInvalidation> split(Set<Integer> ids, Set<String> emails, long sentAt) {
+        List<DeveloperInvalidation> batches = new ArrayList<>();
+        Iterator<Integer> idIterator = ids.iterator();
+        Iterator<String> emailIterator = emails.iterator();
+        while (idIterator.hasNext() || emailIterator.hasNext()) {
+            Set<Integer> batchIds = new LinkedHashSet<>();
+            Set<String> batchEmails = new LinkedHashSet<>();
+            while (batchIds.size() + batchEmails.size() < maxKeys && idIterator.hasNext()) {
+                batchIds.add(idIterator.next());
+            }
+            while (batchIds.size() + batchEmails.size() < maxKeys && emailIterator.hasNext()) {
+                batchEmails.add(emailIterator.next());
+            }
+            batches.add(new DeveloperInvalidation(node, sentAt, false, batchIds, batchEmails));
+        }
+        return batches;
+    }
+
+    private String serialize(DeveloperInvalidation invalidation) {
+        try {
+            return objectMapper.writeValueAsString(invalidation);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DeveloperInvalidation deserialize(String payload) {
+        try {
+            return objectMapper.readValue(payload, DeveloperInvalidation.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import java.util.function.Consumer;
+
+// carries invalidation payloads between nodes; a transport that may have lost messages, e.g. after
+// reconnecting, calls onGap so the receiver can drop everything instead of serving stale entries
+public interface InvalidationTransport {
+    void send(String payload);
+
+    void subscribe(Consumer<String> onMessage, Runnable onGap);
+
+    default int maxPayloadBytes() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,21 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// delivers in-process to every subscriber, the sender included; enough for a single node and for tests
+// that put several buses on one transport
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String payload) {
+        subscribers.forEach(subscriber -> subscriber.accept(payload));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        subscribers.add(onMessage);
+    }
+}
@@ -0,0 +1,112 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// NOTIFY goes through the pool; LISTEN needs a connection of its own that stays open, it is taken from the
+// pool once and polled by a virtual thread. NOTIFY payloads are capped at 8000 bytes by PostgreSQL.
+public class PostgresInvalidationTransport implements InvalidationTransport, DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private volatile boolean running = true;
+    private volatile Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource, String channel, Duration reconnectDelay) {
+        // LISTEN takes an identifier, not a bind parameter
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void send(String payload) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        if (Objects.nonNull(listener)) {
+            throw new IllegalStateException("Only one subscriber per transport");
+        }
+        listener = Thread.ofVirtual()
+                .name("developer-invalidation-listener")
+                .start(() -> listen(onMessage, onGap));
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (Objects.nonNull(listener)) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onGap) {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // notifications sent while no connection was listening are gone
+                if (connectedBefore) {
+                    onGap.run();
+                }
+                connectedBefore = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (Objects.nonNull(notifications)) {
+                        for (PGNotification notification : notifications) {
+                            onMessage.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    LOG.warn("Invalidation listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(reconnectDelay);
+        } catch (InterruptedException e) {
+            running = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.iodkovskaya.testingfordev.job;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.repository.DeveloperJobRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.service.DeveloperService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// runs queued jobs on a small fixed pool, one chunk per transaction: the chunk's changes go through the regular
+// service write paths, so the change log, caches and indexes follow, and commit together with the checkpoint.
+// A single worker, short chunks and a pause between them leave the connection pool to interactive requests.
+@Component
+@ConditionalOnProperty(name = "developers.jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class DeveloperJobRunner {
+    private final DeveloperJobRepository developerJobRepository;
+    private final DeveloperRepository developerRepository;
+    private final DeveloperService developerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int concurrency;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration staleAfter;
+    private final String node = UUID.randomUUID().toString();
+    private final ExecutorService executor;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Counter changedRows;
+    private final Timer chunkTimer;
+    private volatile boolean stopping;
+
+    public DeveloperJobRunner(DeveloperJobRepository developerJobRepository,
+                              DeveloperRepository developerRepository,
+                              DeveloperService developerService,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${developers.jobs.concurrency:1}") int concurrency,
+                              @Value("${developers.jobs.chunk-size:500}") int chunkSize,
+                              @Value("${developers.jobs.chunk-pause:50ms}") Duration chunkPause,
+                              @Value("${developers.jobs.stale-after:1m}") Duration staleAfter) {
+        this.developerJobRepository = developerJobRepository;
+        this.developerRepository = developerRepository;
+        this.developerService = developerService;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrency = concurrency;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.staleAfter = staleAfter;
+        this.executor = Executors.newFixedThreadPool(concurrency,
+                Thread.ofPlatform().name("developer-job-", 0).daemon().factory());
+        this.changedRows = Counter.builder("developers.jobs.rows")
+                .description("Developers changed by bulk jobs")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("developers.jobs.chunk")
+                .description("Time one job chunk takes including its commit")
+                .register(meterRegistry);
+        Gauge.builder("developers.jobs.running", running, AtomicInteger::get)
+                .description("Jobs running on this instance")
+                .register(meterRegistry);
+    }
+
+    // also takes over jobs whose runner stopped sending heartbeats, such as the ones of an instance that died
+    @Scheduled(fixedDelayString = "${developers.jobs.poll-interval:PT1S}")
+    public void dispatch() {
+        int free = concurrency - running.get();
+        if (stopping || free <= 0) {
+            return;
+        }
+        Instant staleBefore = Instant.now().minus(staleAfter);
+        for (Long id : developerJobRepository.findClaimableIds(staleBefore, Limit.of(free))) {
+            Integer claimed = transactionTemplate.execute(status ->
+                    developerJobRepository.claim(id, node, Instant.now(), staleBefore));
+            if (Objects.equals(claimed, 1)) {
+                running.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        run(id);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    String node() {
+        return node;
+    }
+
+    void run(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> resume(id));
+            while (!stopping) {
+                if (!Boolean.TRUE.equals(chunkTimer.record(() -> transactionTemplate.execute(status -> runChunk(id))))) {
+                    return;
+                }
+                Thread.sleep(chunkPause.toMillis());
+            }
+            requeue(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            requeue(id);
+        } catch (OptimisticLockingFailureException e) {
+            // another runner took the job over, its checkpoint wins and this chunk was rolled back
+        } catch (RuntimeException e) {
+            if (stopping) {
+                requeue(id);
+            } else {
+                fail(id, e);
+            }
+        }
+    }
+
+    private void resume(Long id) {
+        DeveloperJobEntity job = developerJobRepository.findById(id).orElseThrow();
+        Instant now = Instant.now();
+        if (Objects.isNull(job.getStartedAt())) {
+            job.setStartedAt(now);
+            job.setTotal(developerRepository.countActiveMatchingAfter(job.getSpecialty(), emailPattern(job), 0));
+        }
+        job.setResumedAt(now);
+        job.setProcessedAtResume(job.getProcessed());
+        job.setHeartbeatAt(now);
+        developerJobRepository.save(job);
+    }
+
+    // true while there may be more to do
+    private boolean runChunk(Long id) {
+        DeveloperJobEntity job = developerJobRepository.findById(id).orElseThrow();
+        if (job.getStatus() != DeveloperJobStatus.RUNNING || !node.equals(job.getOwner())) {
+            return false;
+        }
+        List<Integer> ids = developerRepository.findActiveIdsMatchingAfter(job.getSpecialty(), emailPattern(job),
+                job.getLastId(), Limit.of(chunkSize));
+        int affected = switch (job.getType()) {
+            case MOVE_SPECIALTY -> developerService.changeSpecialty(ids, job.getTargetSpecialty());
+            case SOFT_DELETE -> developerService.deleteByIds(ids, false);
+        };
+        Instant now = Instant.now();
+        if (!ids.isEmpty()) {
+            job.setLastId(ids.getLast());
+            job.setProcessed(job.getProcessed() + ids.size());
+            job.setAffected(job.getAffected() + affected);
+        }
+        job.setHeartbeatAt(now);
+        boolean hasMore = ids.size() == chunkSize;
+        if (!hasMore) {
+            job.setStatus(DeveloperJobStatus.COMPLETED);
+            job.setFinishedAt(now);
+        }
+        developerJobRepository.saveAndFlush(job);
+        changedRows.increment(affected);
+        return hasMore;
+    }
+
+    // handed back to the queue on shutdown, so another instance or the next start carries on without waiting
+    private void requeue(Long id) {
+        finish(id, job -> {
+            job.setStatus(DeveloperJobStatus.QUEUED);
+            job.setOwner(null);
+        });
+    }
+
+    private void fail(Long id, RuntimeException e) {
+        finish(id, job -> {
+            job.setStatus(DeveloperJobStatus.FAILED);
+            job.setError(Objects.toString(e.getMessage(), e.getClass().getSimpleName()));
+            job.setFinishedAt(Instant.now());
+        });
+    }
+
+    private void finish(Long id, Consumer<DeveloperJobEntity> update) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> developerJobRepository.findById(id)
+                    .filter(job -> job.getStatus() == DeveloperJobStatus.RUNNING && node.equals(job.getOwner()))
+                    .ifPresent(job -> {
+                        update.accept(job);
+                        developerJobRepository.save(job);
+                    }));
+        } catch (RuntimeException ignored) {
+            // the heartbeat stops either way, the job is taken over once it is stale
+        }
+    }
+
+    static String emailPattern(DeveloperJobEntity job) {
+        return Objects.isNull(job.getEmailDomain()) ? null : "%@" + job.getEmailDomain();
+    }
+}
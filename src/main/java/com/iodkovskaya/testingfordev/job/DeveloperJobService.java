@@ -0,0 +1,71 @@
+package com.iodkovskaya.testingfordev.job;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import com.iodkovskaya.testingfordev.exception.DeveloperJobNotFoundException;
+import com.iodkovskaya.testingfordev.exception.InvalidDeveloperJobException;
+import com.iodkovskaya.testingfordev.repository.DeveloperJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// accepts bulk jobs and reports on them; DeveloperJobRunner picks queued jobs up in the background
+@Service
+@RequiredArgsConstructor
+public class DeveloperJobService {
+    private static final Pattern EMAIL_DOMAIN = Pattern.compile("[A-Za-z0-9.-]+");
+
+    private final DeveloperJobRepository developerJobRepository;
+    private final SpecialtyDictionary specialtyDictionary;
+
+    @Transactional
+    public DeveloperJobEntity submit(DeveloperJobEntity job) {
+        validate(job);
+        job.setId(null);
+        job.setStatus(DeveloperJobStatus.QUEUED);
+        job.setLastId(0);
+        job.setProcessed(0);
+        job.setAffected(0);
+        job.setTotal(0);
+        job.setCreatedAt(Instant.now());
+        return developerJobRepository.save(job);
+    }
+
+    public DeveloperJobEntity getJob(Long id) {
+        return developerJobRepository.findById(id)
+                .orElseThrow(() -> new DeveloperJobNotFoundException("Job with id " + id + " not found"));
+    }
+
+    // a filter is required, an empty one would touch every active developer
+    private void validate(DeveloperJobEntity job) {
+        if (Objects.isNull(job.getType())) {
+            throw new InvalidDeveloperJobException("Job type must be defined");
+        }
+        if (Objects.isNull(job.getSpecialty()) && Objects.isNull(job.getEmailDomain())) {
+            throw new InvalidDeveloperJobException("At least one of specialty or emailDomain must be defined");
+        }
+        // the filter query binds the specialty through its code, an unknown name must not be registered by it
+        if (Objects.nonNull(job.getSpecialty()) && !specialtyDictionary.contains(job.getSpecialty())) {
+            throw new InvalidDeveloperJobException("Unknown specialty " + job.getSpecialty());
+        }
+        if (Objects.nonNull(job.getEmailDomain()) && !EMAIL_DOMAIN.matcher(job.getEmailDomain()).matches()) {
+            throw new InvalidDeveloperJobException("Email domain is malformed");
+        }
+        if (job.getType() == DeveloperJobType.MOVE_SPECIALTY) {
+            if (Objects.isNull(job.getTargetSpecialty()) || job.getTargetSpecialty().isBlank()) {
+                throw new InvalidDeveloperJobException("Target specialty must be defined");
+            }
+            if (job.getTargetSpecialty().equals(job.getSpecialty())) {
+                throw new InvalidDeveloperJobException("Target specialty must differ from the specialty");
+            }
+        } else {
+            job.setTargetSpecialty(null);
+        }
+    }
+}
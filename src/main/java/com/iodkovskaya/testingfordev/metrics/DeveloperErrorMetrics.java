@@ -0,0 +1,43 @@
+package com.iodkovskaya.testingfordev.metrics;
+
+import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperVersionConflictException;
+import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DeveloperErrorMetrics {
+    private final Counter notFound;
+    private final Counter duplicateEmail;
+    private final Counter versionConflict;
+
+    public DeveloperErrorMetrics(MeterRegistry meterRegistry) {
+        this.notFound = counter(meterRegistry, DeveloperNotFoundException.class);
+        this.duplicateEmail = counter(meterRegistry, DeveloperWithDuplicateEmailException.class);
+        this.versionConflict = counter(meterRegistry, DeveloperVersionConflictException.class);
+    }
+
+    public DeveloperNotFoundException notFound() {
+        notFound.increment();
+        return new DeveloperNotFoundException("Developer not found");
+    }
+
+    public DeveloperWithDuplicateEmailException duplicateEmail() {
+        duplicateEmail.increment();
+        return new DeveloperWithDuplicateEmailException("Developer with defined email is already exist");
+    }
+
+    public DeveloperVersionConflictException versionConflict() {
+        versionConflict.increment();
+        return new DeveloperVersionConflictException("Developer was changed since the given version");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Class<? extends RuntimeException> exception) {
+        return Counter.builder("developers.errors")
+                .description("Domain exceptions raised by the developer services")
+                .tag("exception", exception.getSimpleName())
+                .register(meterRegistry);
+    }
+}
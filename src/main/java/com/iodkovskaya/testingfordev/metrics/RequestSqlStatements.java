@@ -0,0 +1,26 @@
+package com.iodkovskaya.testingfordev.metrics;
+
+// per-thread tally of prepared statements, opened and closed around a web request
+public final class RequestSqlStatements {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private RequestSqlStatements() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,60 @@
+package com.iodkovskaya.testingfordev.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// counts statements as Hibernate prepares them; a JDBC batch is prepared once however many rows it carries
+public class SqlStatementInspector implements StatementInspector {
+    private final Counter selects;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter deletes;
+    private final Counter others;
+
+    public SqlStatementInspector(MeterRegistry meterRegistry) {
+        this.selects = counter(meterRegistry, "select");
+        this.inserts = counter(meterRegistry, "insert");
+        this.updates = counter(meterRegistry, "update");
+        this.deletes = counter(meterRegistry, "delete");
+        this.others = counter(meterRegistry, "other");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counterFor(sql).increment();
+        RequestSqlStatements.increment();
+        return sql;
+    }
+
+    private Counter counterFor(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        if (startsWith(sql, start, "select") || startsWith(sql, start, "with")) {
+            return selects;
+        }
+        if (startsWith(sql, start, "insert")) {
+            return inserts;
+        }
+        if (startsWith(sql, start, "update")) {
+            return updates;
+        }
+        if (startsWith(sql, start, "delete")) {
+            return deletes;
+        }
+        return others;
+    }
+
+    private static boolean startsWith(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("developers.sql.statements")
+                .description("SQL statements prepared through Hibernate")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.iodkovskaya.testingfordev.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private Integer id;
+    private String email;
+    private BatchItemStatus status;
+}
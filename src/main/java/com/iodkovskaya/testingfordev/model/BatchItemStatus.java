@@ -0,0 +1,5 @@
+package com.iodkovskaya.testingfordev.model;
+
+public enum BatchItemStatus {
+    CREATED, DUPLICATE
+}
@@ -0,0 +1,30 @@
+package com.iodkovskaya.testingfordev.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSaveResult {
+    private List<BatchItemResult> items;
+    private long created;
+    private long duplicates;
+    private long elapsedNanos;
+
+    public long getProcessed() {
+        return created + duplicates;
+    }
+
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return getProcessed() * 1_000_000_000d / elapsedNanos;
+    }
+}
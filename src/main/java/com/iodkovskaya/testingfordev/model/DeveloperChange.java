@@ -0,0 +1,36 @@
+package com.iodkovskaya.testingfordev.model;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Objects;
+
+@Data
+@AllArgsConstructor
+public class DeveloperChange {
+    private Long seq;
+    private Integer developerId;
+    private DeveloperChangeType type;
+    // the row as the write at seq left it; null for a hard delete
+    private DeveloperEntity developer;
+
+    public DeveloperChange(Long seq, Integer developerId, DeveloperChangeType type, String email, String firstName,
+                           String lastName, String specialty, Status status, Long version) {
+        this(seq, developerId, type, type == DeveloperChangeType.HARD_DELETED ? null : DeveloperEntity.builder()
+                .id(developerId)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .specialty(specialty)
+                .status(status)
+                .version(version)
+                .build());
+    }
+
+    public boolean isTombstone() {
+        return Objects.isNull(developer);
+    }
+}
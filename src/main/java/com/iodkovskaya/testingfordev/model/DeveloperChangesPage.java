@@ -0,0 +1,14 @@
+package com.iodkovskaya.testingfordev.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DeveloperChangesPage {
+    private List<DeveloperChange> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
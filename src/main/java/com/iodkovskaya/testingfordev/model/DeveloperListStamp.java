@@ -0,0 +1,24 @@
+package com.iodkovskaya.testingfordev.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// every write records its changes under seqs handed out in commit order, so the last seq moves with each committed
+// write and never comes back; one stamp covers every list, a write anywhere changes the tag of all of them.
+// A list served from the column store is stamped by the store instead, with the changes it applied since the build
+// named by the epoch; the database's seqs have no epoch
+@Data
+@AllArgsConstructor
+public class DeveloperListStamp {
+    private long epoch;
+    private long lastSeq;
+
+    public DeveloperListStamp(long lastSeq) {
+        this(0, lastSeq);
+    }
+
+    // weak, the list is read after the stamp and may already hold later writes
+    public String toEtag() {
+        return epoch == 0 ? "W/\"" + lastSeq + "\"" : "W/\"" + epoch + "." + lastSeq + "\"";
+    }
+}
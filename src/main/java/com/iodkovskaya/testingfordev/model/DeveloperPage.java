@@ -0,0 +1,22 @@
+package com.iodkovskaya.testingfordev.model;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeveloperPage {
+    private List<DeveloperEntity> developers;
+    private Integer nextAfterId;
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.iodkovskaya.testingfordev.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SpecialtyCount {
+    private Short code;
+    private String name;
+    private long active;
+    private long total;
+}
@@ -0,0 +1,13 @@
+package com.iodkovskaya.testingfordev.model;
+
+import com.iodkovskaya.testingfordev.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SpecialtyStatusCount {
+    private String specialty;
+    private Status status;
+    private long count;
+}
@@ -0,0 +1,146 @@
+package com.iodkovskaya.testingfordev.outbox;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeEntity;
+import com.iodkovskaya.testingfordev.entity.OutboxOffsetEntity;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import com.iodkovskaya.testingfordev.repository.OutboxOffsetRepository;
+import com.iodkovskaya.testingfordev.service.DeveloperChangeLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// drains developer_changes, which every write path fills in its own transaction, to the sink in seq order.
+// a batch is claimed in a short transaction that leases the offset row, published with no lock held and only
+// then committed by moving the offset; a lease that runs out lets another instance claim the batch again
+@Component
+@ConditionalOnProperty(name = "developers.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class DeveloperOutboxRelay {
+    static final String OFFSET_NAME = "developers";
+
+    private final DeveloperChangeLog developerChangeLog;
+    private final DeveloperChangeRepository developerChangeRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration claimTimeout;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer publishTimer;
+
+    public DeveloperOutboxRelay(DeveloperChangeLog developerChangeLog,
+                                DeveloperChangeRepository developerChangeRepository,
+                                OutboxOffsetRepository outboxOffsetRepository,
+                                OutboxSink outboxSink,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${developers.outbox.batch-size:500}") int batchSize,
+                                @Value("${developers.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                                @Value("${developers.outbox.claim-timeout:30s}") Duration claimTimeout) {
+        this.developerChangeLog = developerChangeLog;
+        this.developerChangeRepository = developerChangeRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.claimTimeout = claimTimeout;
+        this.relayed = Counter.builder("developers.outbox.relayed")
+                .description("Developer changes handed to the outbox sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("developers.outbox.failures")
+                .description("Outbox batches the sink rejected")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("developers.outbox.publish")
+                .description("Time the outbox sink takes per batch")
+                .register(meterRegistry);
+        TimeGauge.builder("developers.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+                .description("Age of the oldest change not yet relayed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${developers.outbox.poll-interval:PT1S}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Claim claim = transactionTemplate.execute(status -> claimBatch());
+            if (Objects.isNull(claim)) {
+                break;
+            }
+            try {
+                publishTimer.record(() -> outboxSink.publish(claim.page().getChanges()));
+            } catch (RuntimeException e) {
+                // the batch stays in the outbox and is claimed again on the next run
+                failures.increment();
+                transactionTemplate.executeWithoutResult(status -> release(claim, claim.from()));
+                break;
+            }
+            relayed.increment(claim.page().getChanges().size());
+            transactionTemplate.executeWithoutResult(status -> release(claim, claim.page().getNextSince()));
+            if (!claim.page().isHasMore()) {
+                break;
+            }
+        }
+        updateLag();
+    }
+
+    // null when there is nothing to relay or another instance holds a lease on the offset
+    private Claim claimBatch() {
+        OutboxOffsetEntity offset = outboxOffsetRepository.findForUpdate(OFFSET_NAME)
+                .orElseGet(() -> outboxOffsetRepository.save(new OutboxOffsetEntity(OFFSET_NAME, 0L, null)));
+        Instant now = Instant.now();
+        if (Objects.nonNull(offset.getClaimedUntil()) && offset.getClaimedUntil().isAfter(now)) {
+            return null;
+        }
+        DeveloperChangesPage page = developerChangeLog.getChangesSince(offset.getLastSeq(), batchSize);
+        if (page.getChanges().isEmpty()) {
+            return null;
+        }
+        offset.setClaimedUntil(now.plus(claimTimeout));
+        outboxOffsetRepository.save(offset);
+        return new Claim(offset.getLastSeq(), page);
+    }
+
+    // a relay whose lease ran out may find the offset already moved by the instance that took over, it leaves it alone
+    private void release(Claim claim, long lastSeq) {
+        outboxOffsetRepository.findForUpdate(OFFSET_NAME)
+                .filter(offset -> offset.getLastSeq() == claim.from())
+                .ifPresent(offset -> {
+                    offset.setLastSeq(lastSeq);
+                    offset.setClaimedUntil(null);
+                    outboxOffsetRepository.save(offset);
+                });
+    }
+
+    // the change log keeps everything after this, the sink has not seen it yet
+    public long getRelayedThrough() {
+        return outboxOffsetRepository.findById(OFFSET_NAME)
+                .map(OutboxOffsetEntity::getLastSeq)
+                .orElse(0L);
+    }
+
+    private void updateLag() {
+        long lastSeq = getRelayedThrough();
+        lagMillis.set(developerChangeRepository.findFirstBySeqGreaterThanOrderBySeqAsc(lastSeq)
+                .map(DeveloperChangeEntity::getChangedAt)
+                .map(changedAt -> Math.max(0, Duration.between(changedAt, Instant.now()).toMillis()))
+                .orElse(0L));
+    }
+
+    private record Claim(long from, DeveloperChangesPage page) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.iodkovskaya.testingfordev.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.dto.DeveloperChangeDto;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// writes every change as one JSON line to the developers.outbox logger, which can be routed to its own file
+public class LoggingOutboxSink implements OutboxSink {
+    private static final Logger LOG = LoggerFactory.getLogger("developers.outbox");
+
+    private final ObjectMapper objectMapper;
+
+    public LoggingOutboxSink(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<DeveloperChange> changes) {
+        if (!LOG.isInfoEnabled()) {
+            return;
+        }
+        for (DeveloperChange change : changes) {
+            try {
+                LOG.info(objectMapper.writeValueAsString(DeveloperChangeDto.fromChange(change)));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.iodkovskaya.testingfordev.outbox;
+
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+
+import java.util.List;
+
+// delivery is at least once: a batch is handed over again when its offset could not be stored, so a sink
+// has to tolerate seeing the same seq twice; throwing keeps the batch in the outbox for the next run
+public interface OutboxSink {
+    void publish(List<DeveloperChange> changes);
+}
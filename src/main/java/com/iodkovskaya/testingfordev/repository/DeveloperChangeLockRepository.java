@@ -0,0 +1,28 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeLockEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface DeveloperChangeLockRepository extends JpaRepository<DeveloperChangeLockEntity, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM DeveloperChangeLockEntity l WHERE l.name = ?1")
+    Optional<DeveloperChangeLockEntity> findForUpdate(String name);
+
+    @Query("SELECT l.prunedThrough FROM DeveloperChangeLockEntity l WHERE l.name = ?1")
+    Optional<Long> findPrunedThrough(String name);
+
+    // concurrent prunes only ever move it forward
+    @Transactional
+    @Modifying
+    @Query("UPDATE DeveloperChangeLockEntity l SET l.prunedThrough = ?2 WHERE l.name = ?1 AND l.prunedThrough < ?2")
+    int advancePrunedThrough(String name, long prunedThrough);
+}
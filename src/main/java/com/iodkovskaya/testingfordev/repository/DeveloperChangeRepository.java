@@ -0,0 +1,81 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeEntity;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// the inserts select from developers, so one statement stages a whole chunk or a whole specialty together with
+// the rows as the write leaves them; soft deletes are staged before their statement and record what it will set
+@Repository
+public interface DeveloperChangeRepository extends JpaRepository<DeveloperChangeEntity, Long> {
+    String STAGED_COLUMNS = "developer_id, change_type, changed_at, email, first_name, last_name, specialty_code, status, version";
+    String STAGED_ROW = "d.id, :type, :changedAt, d.email, d.first_name, d.last_name, d.specialty_code, " +
+            "CASE WHEN :type = 'SOFT_DELETED' THEN 'DELETED' ELSE d.status END, " +
+            "CASE WHEN :type = 'SOFT_DELETED' THEN d.version + 1 ELSE d.version END";
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO developer_change_staging (" + STAGED_COLUMNS + ") " +
+            "SELECT " + STAGED_ROW + " FROM developers d WHERE d.id IN :ids", nativeQuery = true)
+    int insertChangesByIds(String type, Instant changedAt, Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO developer_change_staging (" + STAGED_COLUMNS + ") " +
+            "SELECT " + STAGED_ROW + " FROM developers d WHERE d.id IN :ids AND d.status = 'ACTIVE'", nativeQuery = true)
+    int insertChangesByActiveIds(String type, Instant changedAt, Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO developer_change_staging (" + STAGED_COLUMNS + ") " +
+            "SELECT " + STAGED_ROW + " FROM developers d WHERE d.specialty_code = :specialtyCode", nativeQuery = true)
+    int insertChangesBySpecialty(String type, Instant changedAt, Short specialtyCode);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO developer_change_staging (" + STAGED_COLUMNS + ") " +
+            "SELECT " + STAGED_ROW + " FROM developers d WHERE d.specialty_code = :specialtyCode AND d.status = 'ACTIVE'", nativeQuery = true)
+    int insertChangesByActiveSpecialty(String type, Instant changedAt, Short specialtyCode);
+
+    // only called with the change log lock held, so the identity hands out seqs in commit order
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO developer_changes (" + STAGED_COLUMNS + ") " +
+            "SELECT " + STAGED_COLUMNS + " FROM developer_change_staging ORDER BY id", nativeQuery = true)
+    int publishStaged();
+
+    // other transactions never see staged rows, this only removes the ones of the calling transaction
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM developer_change_staging", nativeQuery = true)
+    int clearStaged();
+
+    @Query("SELECT new com.iodkovskaya.testingfordev.model.DeveloperChange(c.seq, c.developerId, c.type, " +
+            "c.email, c.firstName, c.lastName, c.specialty, c.status, c.version) " +
+            "FROM DeveloperChangeEntity c WHERE c.seq > ?1 ORDER BY c.seq")
+    List<DeveloperChange> findChangesAfter(Long since, Limit limit);
+
+    Optional<DeveloperChangeEntity> findFirstBySeqGreaterThanOrderBySeqAsc(Long seq);
+
+    // a primary key lookup, read-only so a list stamp comes from the same database the list is read from
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(c.seq) FROM DeveloperChangeEntity c")
+    Optional<Long> findLastSeq();
+
+    List<DeveloperChangeEntity> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeveloperChangeEntity c WHERE c.seq <= ?1")
+    int deleteThrough(Long seq);
+}
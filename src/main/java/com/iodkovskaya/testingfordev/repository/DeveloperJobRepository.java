@@ -0,0 +1,24 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DeveloperJobRepository extends JpaRepository<DeveloperJobEntity, Long> {
+    @Query("SELECT j.id FROM DeveloperJobEntity j " +
+            "WHERE j.status = 'QUEUED' OR (j.status = 'RUNNING' AND j.heartbeatAt < ?1) ORDER BY j.id")
+    List<Long> findClaimableIds(Instant staleBefore, Limit limit);
+
+    // the conditional update lets exactly one runner win a job
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperJobEntity j SET j.status = 'RUNNING', j.owner = ?2, j.heartbeatAt = ?3, j.version = j.version + 1 " +
+            "WHERE j.id = ?1 AND (j.status = 'QUEUED' OR (j.status = 'RUNNING' AND j.heartbeatAt < ?4))")
+    int claim(Long id, String owner, Instant now, Instant staleBefore);
+}
@@ -1,16 +1,154 @@
 package com.iodkovskaya.testingfordev.repository;
 
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeveloperRepository extends JpaRepository<DeveloperEntity, Integer> {
+    // read-only like the inherited finders, which lets the replica profile route them away from the primary
+    @Transactional(readOnly = true)
     DeveloperEntity findByEmail(String email);
 
+    @Query("SELECT d.version FROM DeveloperEntity d WHERE d.id = ?1")
+    Optional<Long> findVersionById(Integer id);
+
+    // taken by the single row writes before their statement, so the row they report as previous is the one they change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DeveloperEntity d WHERE d.id = ?1")
+    Optional<DeveloperEntity> findByIdForUpdate(Integer id);
+
+    @Transactional(readOnly = true)
     @Query("SELECT d FROM DeveloperEntity d WHERE d.status = 'ACTIVE' AND d.specialty = ?1")
     List<DeveloperEntity> findAllActiveBySpecialty(String specialty);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.iodkovskaya.testingfordev.dto.DeveloperDto(d.id, d.firstName, d.lastName, d.email, d.specialty, d.status) " +
+            "FROM DeveloperEntity d WHERE d.specialty = ?1 AND d.status = 'ACTIVE'")
+    List<DeveloperDto> findAllActiveDtosBySpecialty(String specialty);
+
+    // joins the caller's transaction, a refresh after another node's write must not read a lagging replica
+    @Query("SELECT new com.iodkovskaya.testingfordev.dto.DeveloperDto(d.id, d.firstName, d.lastName, d.email, d.specialty, d.status) " +
+            "FROM DeveloperEntity d WHERE d.id IN ?1 AND d.status = 'ACTIVE'")
+    List<DeveloperDto> findAllActiveDtosByIds(Collection<Integer> ids);
+
+    @Query("SELECT new com.iodkovskaya.testingfordev.model.SpecialtyStatusCount(d.specialty, d.status, COUNT(d)) " +
+            "FROM DeveloperEntity d GROUP BY d.specialty, d.status")
+    List<SpecialtyStatusCount> countGroupedBySpecialtyAndStatus();
+
+    // the database groups by specialty code, names only exist after conversion so the few rows are ordered here
+    default List<SpecialtyStatusCount> countBySpecialtyAndStatus() {
+        List<SpecialtyStatusCount> counts = new ArrayList<>(countGroupedBySpecialtyAndStatus());
+        counts.sort(Comparator
+                .comparing(SpecialtyStatusCount::getSpecialty, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(SpecialtyStatusCount::getStatus, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    List<DeveloperEntity> findAllByStatus(Status status);
+
+    @Query("SELECT d.email FROM DeveloperEntity d WHERE d.email IN ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM DeveloperEntity d ORDER BY d.id")
+    Stream<DeveloperEntity> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.email FROM DeveloperEntity d WHERE d.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.iodkovskaya.testingfordev.dto.DeveloperDto(d.id, d.firstName, d.lastName, d.email, d.specialty, d.status) " +
+            "FROM DeveloperEntity d WHERE d.status = 'ACTIVE'")
+    Stream<DeveloperDto> streamAllActiveDtos();
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.email = ?2, d.firstName = ?3, d.lastName = ?4, d.specialty = ?5, d.status = ?6, " +
+            "d.version = d.version + 1 WHERE d.id = ?1")
+    int updateById(Integer id, String email, String firstName, String lastName, String specialty, Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.email = ?3, d.firstName = ?4, d.lastName = ?5, d.specialty = ?6, d.status = ?7, " +
+            "d.version = d.version + 1 WHERE d.id = ?1 AND d.version = ?2")
+    int updateByIdAndVersion(Integer id, Long version, String email, String firstName, String lastName, String specialty, Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.status = 'DELETED', d.version = d.version + 1 WHERE d.id = ?1")
+    int softDeleteById(Integer id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM DeveloperEntity d WHERE d.id = ?1")
+    int hardDeleteById(Integer id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.status = 'DELETED', d.version = d.version + 1 WHERE d.id IN ?1 AND d.status = 'ACTIVE'")
+    int softDeleteAllByIdIn(Collection<Integer> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.specialty = ?2, d.version = d.version + 1 WHERE d.id IN ?1 AND d.status = 'ACTIVE'")
+    int updateSpecialtyByActiveIdIn(Collection<Integer> ids, String specialty);
+
+    // a null filter matches everything; the bulk jobs walk these with the last id of the previous chunk
+    @Query("SELECT d.id FROM DeveloperEntity d WHERE d.status = 'ACTIVE' AND (?1 IS NULL OR d.specialty = ?1) " +
+            "AND (?2 IS NULL OR d.email LIKE ?2) AND d.id > ?3 ORDER BY d.id")
+    List<Integer> findActiveIdsMatchingAfter(String specialty, String emailPattern, Integer afterId, Limit limit);
+
+    @Query("SELECT COUNT(d) FROM DeveloperEntity d WHERE d.status = 'ACTIVE' AND (?1 IS NULL OR d.specialty = ?1) " +
+            "AND (?2 IS NULL OR d.email LIKE ?2) AND d.id > ?3")
+    long countActiveMatchingAfter(String specialty, String emailPattern, Integer afterId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DeveloperEntity d SET d.status = 'DELETED', d.version = d.version + 1 WHERE d.specialty = ?1 AND d.status = 'ACTIVE'")
+    int softDeleteAllBySpecialty(String specialty);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM DeveloperEntity d WHERE d.id IN ?1")
+    int hardDeleteAllByIdIn(Collection<Integer> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM DeveloperEntity d WHERE d.specialty = ?1")
+    int hardDeleteAllBySpecialty(String specialty);
+
+    @Query("SELECT d FROM DeveloperEntity d WHERE d.status = 'ACTIVE' AND d.id > ?1 ORDER BY d.id")
+    List<DeveloperEntity> findActivePageAfter(Integer afterId, Limit limit);
+
+    @Query("SELECT d FROM DeveloperEntity d WHERE d.status = 'ACTIVE' AND d.specialty = ?1 AND d.id > ?2 ORDER BY d.id")
+    List<DeveloperEntity> findActiveBySpecialtyPageAfter(String specialty, Integer afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM DeveloperEntity d WHERE d.status = ?1")
+    Stream<DeveloperEntity> streamAllByStatus(Status status);
 }
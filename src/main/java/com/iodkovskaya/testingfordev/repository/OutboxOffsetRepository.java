@@ -0,0 +1,17 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.entity.OutboxOffsetEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffsetEntity, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffsetEntity o WHERE o.name = ?1")
+    Optional<OutboxOffsetEntity> findForUpdate(String name);
+}
@@ -0,0 +1,35 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperRow;
+import com.iodkovskaya.testingfordev.entity.Status;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDeveloperRepository extends R2dbcRepository<DeveloperRow, Integer> {
+    Mono<DeveloperRow> findByEmail(String email);
+
+    Flux<DeveloperRow> findAllByStatus(Status status);
+
+    @Query("SELECT * FROM developers WHERE specialty_code = :specialtyCode AND status = 'ACTIVE'")
+    Flux<DeveloperRow> findAllActiveBySpecialtyCode(Short specialtyCode);
+
+    // shares the sequence with Hibernate, every call reserves a whole pooled block for one row
+    @Query("SELECT nextval('developers_seq')")
+    Mono<Long> nextId();
+
+    @Modifying
+    @Query("UPDATE developers SET email = :email, first_name = :firstName, last_name = :lastName, " +
+            "specialty_code = :specialtyCode, status = :status, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateById(Integer id, String email, String firstName, String lastName, Short specialtyCode, Status status);
+
+    @Modifying
+    @Query("UPDATE developers SET status = 'DELETED', version = version + 1 WHERE id = :id")
+    Mono<Integer> softDeleteById(Integer id);
+
+    @Modifying
+    @Query("DELETE FROM developers WHERE id = :id")
+    Mono<Integer> hardDeleteById(Integer id);
+}
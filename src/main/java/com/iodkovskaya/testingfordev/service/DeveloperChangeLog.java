@@ -0,0 +1,156 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeLockEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.exception.ChangesPrunedException;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeLockRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// records every developer touched by a write in the writer's transaction and serves them back ordered by seq.
+// an identity handed out at insert time becomes visible at commit, so a concurrent writer could commit a lower
+// seq after a higher one was read; changes are therefore staged first and moved to developer_changes right
+// before the commit with the lock row held, which keeps seqs in commit order and lets readers go up to the last one
+@Component
+@RequiredArgsConstructor
+public class DeveloperChangeLog {
+    static final String LOCK_NAME = "developers";
+
+    private final DeveloperChangeRepository developerChangeRepository;
+    private final DeveloperChangeLockRepository developerChangeLockRepository;
+    private final SpecialtyDictionary specialtyDictionary;
+    private final AtomicInteger seqWatchers = new AtomicInteger();
+
+    @PostConstruct
+    public void createLock() {
+        if (developerChangeLockRepository.existsById(LOCK_NAME)) {
+            return;
+        }
+        try {
+            developerChangeLockRepository.save(new DeveloperChangeLockEntity(LOCK_NAME, 0L));
+        } catch (DataIntegrityViolationException e) {
+            // another node created it first
+        }
+    }
+
+    public void recordById(DeveloperChangeType type, Integer id) {
+        staged(developerChangeRepository.insertChangesByIds(type.name(), Instant.now(), List.of(id)));
+    }
+
+    public void recordByIds(DeveloperChangeType type, Collection<Integer> ids) {
+        if (!ids.isEmpty()) {
+            staged(developerChangeRepository.insertChangesByIds(type.name(), Instant.now(), ids));
+        }
+    }
+
+    public void recordByActiveIds(DeveloperChangeType type, Collection<Integer> ids) {
+        if (!ids.isEmpty()) {
+            staged(developerChangeRepository.insertChangesByActiveIds(type.name(), Instant.now(), ids));
+        }
+    }
+
+    // the native insert compares the code column, a specialty without a code has no developers to record
+    public void recordBySpecialty(DeveloperChangeType type, String specialty, boolean activeOnly) {
+        Optional<Short> code = specialtyDictionary.findCode(specialty);
+        if (code.isEmpty()) {
+            return;
+        }
+        if (activeOnly) {
+            staged(developerChangeRepository.insertChangesByActiveSpecialty(type.name(), Instant.now(), code.get()));
+        } else {
+            staged(developerChangeRepository.insertChangesBySpecialty(type.name(), Instant.now(), code.get()));
+        }
+    }
+
+    // every committed change is below the next seq any writer can get, so the page may end at the last one read.
+    // a page that does not start right after since may have lost changes to the retention; the pruned seq is read
+    // after the page, so a prune that committed before the page was read is seen
+    public DeveloperChangesPage getChangesSince(long since, int limit) {
+        List<DeveloperChange> changes = developerChangeRepository.findChangesAfter(since, Limit.of(limit + 1));
+        if (changes.isEmpty() || changes.get(0).getSeq() != since + 1) {
+            long prunedThrough = developerChangeLockRepository.findPrunedThrough(LOCK_NAME).orElse(0L);
+            if (since < prunedThrough) {
+                throw new ChangesPrunedException(prunedThrough);
+            }
+        }
+        boolean hasMore = changes.size() > limit;
+        List<DeveloperChange> page = hasMore ? changes.subList(0, limit) : changes;
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).getSeq();
+        return new DeveloperChangesPage(page, nextSince, hasMore);
+    }
+
+    // the retention always keeps the newest change, so this never goes back
+    public long getLastSeq() {
+        return developerChangeRepository.findLastSeq().orElse(0L);
+    }
+
+    // reading back the seqs a commit got costs every write a select, so it only happens while someone watches them
+    public void watchSeqs() {
+        seqWatchers.incrementAndGet();
+    }
+
+    public void unwatchSeqs() {
+        seqWatchers.decrementAndGet();
+    }
+
+    // for after-commit listeners of the writing transaction: the last seq its changes got, empty when nobody
+    // watched the seqs at its commit or it recorded no changes
+    public OptionalLong getCommittedSeq() {
+        if (TransactionSynchronizationManager.getResource(this) instanceof Staged staged && staged.lastSeq > 0) {
+            return OptionalLong.of(staged.lastSeq);
+        }
+        return OptionalLong.empty();
+    }
+
+    private void staged(int rows) {
+        if (rows == 0 || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Developer changes have to be recorded in the writing transaction");
+        }
+        Staged staged = new Staged();
+        TransactionSynchronizationManager.bindResource(this, staged);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                staged.lastSeq = publishStaged();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DeveloperChangeLog.this);
+            }
+        });
+    }
+
+    // the lock is held until the commit, the next writer gets its seqs only once these are visible; for the same
+    // reason the highest seq read right after publishing is this transaction's last one
+    private long publishStaged() {
+        developerChangeLockRepository.findForUpdate(LOCK_NAME)
+                .orElseThrow(() -> new IllegalStateException("Developer change log lock is missing"));
+        developerChangeRepository.publishStaged();
+        developerChangeRepository.clearStaged();
+        return seqWatchers.get() > 0 ? developerChangeRepository.findLastSeq().orElse(0L) : 0;
+    }
+
+    private static final class Staged {
+        private long lastSeq;
+    }
+}
@@ -0,0 +1,91 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeEntity;
+import com.iodkovskaya.testingfordev.outbox.DeveloperOutboxRelay;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeLockRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+// prunes developer_changes older than the retention, but never past what the outbox relay has handed on and never
+// the newest change, so the last seq readers compare against does not go back; chunks keep each delete short.
+// a /changes reader whose since lies below the pruned seq has missed changes and is told so
+@Component
+public class DeveloperChangeRetention {
+    private final DeveloperChangeRepository developerChangeRepository;
+    private final DeveloperChangeLockRepository developerChangeLockRepository;
+    private final ObjectProvider<DeveloperOutboxRelay> developerOutboxRelay;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter pruned;
+
+    public DeveloperChangeRetention(DeveloperChangeRepository developerChangeRepository,
+                                    DeveloperChangeLockRepository developerChangeLockRepository,
+                                    ObjectProvider<DeveloperOutboxRelay> developerOutboxRelay,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${developers.changes.retention:7d}") Duration retention,
+                                    @Value("${developers.changes.prune-chunk-size:1000}") int chunkSize) {
+        this.developerChangeRepository = developerChangeRepository;
+        this.developerChangeLockRepository = developerChangeLockRepository;
+        this.developerOutboxRelay = developerOutboxRelay;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.pruned = Counter.builder("developers.changes.pruned")
+                .description("Developer changes removed by the retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${developers.changes.prune-interval:PT10M}")
+    public void prune() {
+        long horizon = horizon();
+        Instant cutoff = Instant.now().minus(retention);
+        boolean more;
+        do {
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> pruneChunk(horizon, cutoff)));
+        } while (more);
+    }
+
+    private long horizon() {
+        long horizon = developerChangeRepository.findLastSeq().orElse(0L) - 1;
+        DeveloperOutboxRelay relay = developerOutboxRelay.getIfAvailable();
+        if (Objects.nonNull(relay)) {
+            horizon = Math.min(horizon, relay.getRelayedThrough());
+        }
+        return horizon;
+    }
+
+    // walks the oldest changes in seq order and stops at the first one still kept; changed_at is taken when a change
+    // is staged and the seq when it commits, so the two orders can differ
+    private boolean pruneChunk(long horizon, Instant cutoff) {
+        long prunedThrough = developerChangeLockRepository.findPrunedThrough(DeveloperChangeLog.LOCK_NAME).orElse(0L);
+        List<DeveloperChangeEntity> oldest = developerChangeRepository.findBySeqGreaterThanOrderBySeqAsc(prunedThrough,
+                Limit.of(chunkSize));
+        long through = prunedThrough;
+        for (DeveloperChangeEntity change : oldest) {
+            if (change.getSeq() > horizon || !change.getChangedAt().isBefore(cutoff)) {
+                break;
+            }
+            through = change.getSeq();
+        }
+        if (through == prunedThrough) {
+            return false;
+        }
+        developerChangeLockRepository.advancePrunedThrough(DeveloperChangeLog.LOCK_NAME, through);
+        pruned.increment(developerChangeRepository.deleteThrough(through));
+        return oldest.size() == chunkSize && through == oldest.get(oldest.size() - 1).getSeq();
+    }
+}
@@ -1,23 +1,67 @@
 package com.iodkovskaya.testingfordev.service;
 
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
+import com.iodkovskaya.testingfordev.model.SpecialtyCount;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DeveloperService {
     DeveloperEntity saveDeveloper(DeveloperEntity developer);
 
+    BatchSaveResult saveDevelopers(List<DeveloperEntity> developers);
+
+    BatchSaveResult importDevelopers(Iterator<DeveloperEntity> developers);
+
+    void exportDevelopers(Consumer<DeveloperEntity> consumer);
+
     DeveloperEntity updateDeveloper(DeveloperEntity developer);
 
+    DeveloperEntity updateDeveloper(DeveloperEntity developer, long expectedVersion);
+
     DeveloperEntity getDeveloperById(Integer id);
 
+    Long getDeveloperVersion(Integer id);
+
     DeveloperEntity getDeveloperByEmail(String email);
 
     List<DeveloperEntity> getAllDevelopers();
 
+    void streamAllDevelopers(Consumer<DeveloperDto> consumer);
+
     List<DeveloperEntity> getAllActiveBySpecialty(String specialty);
 
+    List<DeveloperDto> getAllActiveDtosBySpecialty(String specialty);
+
+    DeveloperListStamp getListStamp();
+
+    List<SpecialtyStatusCount> getStatistics();
+
+    List<SpecialtyCount> getSpecialties();
+
+    List<DeveloperDto> searchDevelopers(String query, int limit);
+
+    DeveloperChangesPage getChangesSince(Long since, int limit);
+
+    DeveloperPage getActiveDevelopersPage(Integer afterId, int limit);
+
+    DeveloperPage getActiveBySpecialtyPage(String specialty, Integer afterId, int limit);
+
     void softDeleteById(Integer id);
 
     void hardDeleteById(Integer id);
+
+    int deleteByIds(Collection<Integer> ids, boolean isHard);
+
+    int deleteBySpecialty(String specialty, boolean isHard);
+
+    int changeSpecialty(Collection<Integer> ids, String specialty);
 }
@@ -1,87 +1,559 @@
 package com.iodkovskaya.testingfordev.service;
 
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.cache.DeveloperColumnStore;
+import com.iodkovskaya.testingfordev.cache.DeveloperEmailFilter;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.DeveloperStatsTracker;
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
 import com.iodkovskaya.testingfordev.entity.Status;
-import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.exception.DeveloperImportException;
 import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.exception.SearchIndexNotReadyException;
+import com.iodkovskaya.testingfordev.metrics.DeveloperErrorMetrics;
+import com.iodkovskaya.testingfordev.model.BatchItemResult;
+import com.iodkovskaya.testingfordev.model.BatchItemStatus;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
+import com.iodkovskaya.testingfordev.model.SpecialtyCount;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
 import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 public class DeveloperServiceImpl implements DeveloperService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final DeveloperRepository developerRepository;
+    private final EntityManager entityManager;
+    private final DeveloperCache developerCache;
+    private final DeveloperEmailFilter developerEmailFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final DeveloperErrorMetrics developerErrorMetrics;
+    private final DeveloperStatsTracker developerStatsTracker;
+    private final DeveloperSearchIndex developerSearchIndex;
+    private final DeveloperColumnStore developerColumnStore;
+    private final DeveloperChangeLog developerChangeLog;
+    private final SpecialtyDictionary specialtyDictionary;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public DeveloperEntity saveDeveloper(DeveloperEntity developer) {
-        DeveloperEntity duplicateCandidate = developerRepository.findByEmail(developer.getEmail());
+        if (developerEmailFilter.mightContain(developer.getEmail())) {
+            DeveloperEntity duplicateCandidate = developerRepository.findByEmail(developer.getEmail());
+
+            if (Objects.nonNull(duplicateCandidate)) {
+                throw developerErrorMetrics.duplicateEmail();
+            }
+        }
+        DeveloperEntity savedDeveloper;
+        try {
+            savedDeveloper = developerRepository.saveAndFlush(developer);
+        } catch (DataIntegrityViolationException e) {
+            throw developerErrorMetrics.duplicateEmail();
+        }
+        developerChangeLog.recordById(DeveloperChangeType.CREATED, savedDeveloper.getId());
+        developerEmailFilter.add(savedDeveloper.getEmail());
+        eventPublisher.publishEvent(DeveloperChangedEvent.created(List.of(savedDeveloper)));
+        return savedDeveloper;
+    }
 
-        if (Objects.nonNull(duplicateCandidate)) {
-            throw new DeveloperWithDuplicateEmailException("Developer with defined email is already exist");
+    @Override
+    public BatchSaveResult saveDevelopers(List<DeveloperEntity> developers) {
+        long startedAt = System.nanoTime();
+        List<BatchItemResult> items = new ArrayList<>(developers.size());
+        for (int from = 0; from < developers.size(); from += BATCH_CHUNK_SIZE) {
+            List<DeveloperEntity> chunk = developers.subList(from, Math.min(from + BATCH_CHUNK_SIZE, developers.size()));
+            items.addAll(saveChunk(chunk, from));
         }
-        return developerRepository.save(developer);
+        long created = items.stream()
+                .filter(item -> item.getStatus() == BatchItemStatus.CREATED)
+                .count();
+        return BatchSaveResult.builder()
+                .items(items)
+                .created(created)
+                .duplicates(items.size() - created)
+                .elapsedNanos(System.nanoTime() - startedAt)
+                .build();
     }
 
     @Override
+    public BatchSaveResult importDevelopers(Iterator<DeveloperEntity> developers) {
+        long startedAt = System.nanoTime();
+        long[] createdAndDuplicates = new long[2];
+        int offset = 0;
+        List<DeveloperEntity> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        while (true) {
+            DeveloperEntity developer;
+            try {
+                if (!developers.hasNext()) {
+                    break;
+                }
+                developer = developers.next();
+            } catch (RuntimeException e) {
+                // chunks commit as they go, so the records read before the bad one are saved as well;
+                // the caller can then resume the import right at the record that failed
+                count(saveChunk(chunk, offset), createdAndDuplicates);
+                throw new DeveloperImportException(importResult(createdAndDuplicates, startedAt), e);
+            }
+            chunk.add(developer);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                count(saveChunk(chunk, offset), createdAndDuplicates);
+                offset += chunk.size();
+                chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            }
+        }
+        count(saveChunk(chunk, offset), createdAndDuplicates);
+        return importResult(createdAndDuplicates, startedAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportDevelopers(Consumer<DeveloperEntity> consumer) {
+        try (Stream<DeveloperEntity> developers = developerRepository.streamAll()) {
+            forEachDetached(developers, consumer);
+        }
+    }
+
+    @Override
+    @Transactional
     public DeveloperEntity updateDeveloper(DeveloperEntity developer) {
-        boolean isExists = developerRepository.existsById(developer.getId());
+        Optional<DeveloperEntity> previous = previousOf(developer.getId());
+        int updated;
+        try {
+            updated = developerRepository.updateById(developer.getId(), developer.getEmail(),
+                    developer.getFirstName(), developer.getLastName(), developer.getSpecialty(), developer.getStatus());
+        } catch (DataIntegrityViolationException e) {
+            throw developerErrorMetrics.duplicateEmail();
+        }
 
-        if (!isExists) {
-            throw new DeveloperNotFoundException("Developer not found");
+        if (updated == 0) {
+            throw developerErrorMetrics.notFound();
         }
-        return developerRepository.save(developer);
+        // the statement bumps the version but does not return it, the caller has to re-read it for an ETag
+        developer.setVersion(null);
+        developerChangeLog.recordById(DeveloperChangeType.UPDATED, developer.getId());
+        return afterUpdate(developer, previous);
+    }
+
+    @Override
+    @Transactional
+    public DeveloperEntity updateDeveloper(DeveloperEntity developer, long expectedVersion) {
+        Optional<DeveloperEntity> previous = previousOf(developer.getId());
+        int updated;
+        try {
+            updated = developerRepository.updateByIdAndVersion(developer.getId(), expectedVersion, developer.getEmail(),
+                    developer.getFirstName(), developer.getLastName(), developer.getSpecialty(), developer.getStatus());
+        } catch (DataIntegrityViolationException e) {
+            throw developerErrorMetrics.duplicateEmail();
+        }
+
+        if (updated == 0) {
+            // only a failed update pays for telling a missing developer apart from a stale version
+            if (!developerRepository.existsById(developer.getId())) {
+                throw developerErrorMetrics.notFound();
+            }
+            throw developerErrorMetrics.versionConflict();
+        }
+        developer.setVersion(expectedVersion + 1);
+        developerChangeLog.recordById(DeveloperChangeType.UPDATED, developer.getId());
+        return afterUpdate(developer, previous);
     }
 
     @Override
     public DeveloperEntity getDeveloperById(Integer id) {
-        return developerRepository.findById(id)
-                .orElseThrow(() -> new DeveloperNotFoundException("Developer not found"));
+        // the column store only holds active developers, a deleted one still comes from the cache or the database
+        return developerColumnStore.getById(id)
+                .or(() -> developerCache.getById(id))
+                .orElseGet(() -> developerCache.loadById(id, () -> developerRepository.findById(id)
+                        .orElseThrow(developerErrorMetrics::notFound)));
+    }
+
+    @Override
+    public Long getDeveloperVersion(Integer id) {
+        return developerColumnStore.getById(id)
+                .or(() -> developerCache.getById(id))
+                .map(DeveloperEntity::getVersion)
+                .orElseGet(() -> developerRepository.findVersionById(id)
+                        .orElseThrow(developerErrorMetrics::notFound));
     }
 
     @Override
     public DeveloperEntity getDeveloperByEmail(String email) {
-        DeveloperEntity obtainedDeveloper = developerRepository.findByEmail(email);
+        return developerColumnStore.getByEmail(email)
+                .or(() -> developerCache.getByEmail(email))
+                .orElseGet(() -> developerCache.loadByEmail(() -> {
+                    DeveloperEntity obtainedDeveloper = developerRepository.findByEmail(email);
 
-        if (Objects.isNull(obtainedDeveloper)) {
-            throw new DeveloperNotFoundException("Developer not found");
-        }
-        return obtainedDeveloper;
+                    if (Objects.isNull(obtainedDeveloper)) {
+                        throw developerErrorMetrics.notFound();
+                    }
+                    return obtainedDeveloper;
+                }));
     }
 
 
     @Override
     public List<DeveloperEntity> getAllDevelopers() {
-        return developerRepository.findAll()
-                .stream().filter(d -> {
-                    return d.getStatus().equals(Status.ACTIVE);
-                })
-                .collect(Collectors.toList());
+        return developerRepository.findAllByStatus(Status.ACTIVE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllDevelopers(Consumer<DeveloperDto> consumer) {
+        if (developerColumnStore.forEachActive(consumer)) {
+            return;
+        }
+        try (Stream<DeveloperEntity> developers = developerRepository.streamAllByStatus(Status.ACTIVE)) {
+            forEachDetached(developers, developer -> consumer.accept(DeveloperDto.fromEntity(developer)));
+        }
     }
 
     @Override
     public List<DeveloperEntity> getAllActiveBySpecialty(String specialty) {
+        // a name without a code has no developers, looking it up must not add it to the dictionary
+        if (!specialtyDictionary.contains(specialty)) {
+            return List.of();
+        }
         return developerRepository.findAllActiveBySpecialty(specialty);
     }
 
     @Override
+    public List<DeveloperDto> getAllActiveDtosBySpecialty(String specialty) {
+        Optional<List<DeveloperDto>> served = developerColumnStore.getAllActiveDtosBySpecialty(specialty);
+        if (served.isPresent()) {
+            return served.get();
+        }
+        if (!specialtyDictionary.contains(specialty)) {
+            return List.of();
+        }
+        return developerRepository.findAllActiveDtosBySpecialty(specialty);
+    }
+
+    @Override
+    public DeveloperListStamp getListStamp() {
+        // a warm store serves the lists, and it applies a commit only after the database has it
+        return developerColumnStore.getListStamp()
+                .orElseGet(() -> new DeveloperListStamp(developerChangeLog.getLastSeq()));
+    }
+
+    @Override
+    public List<SpecialtyStatusCount> getStatistics() {
+        return developerStatsTracker.getStats();
+    }
+
+    @Override
+    public List<SpecialtyCount> getSpecialties() {
+        Map<String, long[]> counts = new HashMap<>();
+        for (SpecialtyStatusCount count : developerStatsTracker.getStats()) {
+            long[] activeAndTotal = counts.computeIfAbsent(count.getSpecialty(), specialty -> new long[2]);
+            if (count.getStatus() == Status.ACTIVE) {
+                activeAndTotal[0] += count.getCount();
+            }
+            activeAndTotal[1] += count.getCount();
+        }
+        List<SpecialtyCount> specialties = new ArrayList<>();
+        specialtyDictionary.entries().forEach((code, name) -> {
+            long[] activeAndTotal = counts.getOrDefault(name, new long[2]);
+            specialties.add(new SpecialtyCount(code, name, activeAndTotal[0], activeAndTotal[1]));
+        });
+        specialties.sort(Comparator.comparing(SpecialtyCount::getName));
+        return specialties;
+    }
+
+    @Override
+    public List<DeveloperDto> searchDevelopers(String query, int limit) {
+        return developerSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)))
+                .orElseThrow(SearchIndexNotReadyException::new);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeveloperChangesPage getChangesSince(Long since, int limit) {
+        return developerChangeLog.getChangesSince(Objects.isNull(since) ? 0 : Math.max(since, 0), normalizePageSize(limit));
+    }
+
+    @Override
+    public DeveloperPage getActiveDevelopersPage(Integer afterId, int limit) {
+        int pageSize = normalizePageSize(limit);
+        List<DeveloperEntity> developers = developerRepository.findActivePageAfter(
+                normalizeAfterId(afterId), Limit.of(pageSize + 1));
+        return toPage(developers, pageSize);
+    }
+
+    @Override
+    public DeveloperPage getActiveBySpecialtyPage(String specialty, Integer afterId, int limit) {
+        if (!specialtyDictionary.contains(specialty)) {
+            return new DeveloperPage(List.of(), null);
+        }
+        int pageSize = normalizePageSize(limit);
+        List<DeveloperEntity> developers = developerRepository.findActiveBySpecialtyPageAfter(
+                specialty, normalizeAfterId(afterId), Limit.of(pageSize + 1));
+        return toPage(developers, pageSize);
+    }
+
+    @Override
+    @Transactional
     public void softDeleteById(Integer id) {
-        DeveloperEntity developer = developerRepository.findById(id)
-                .orElseThrow(() -> new DeveloperNotFoundException("Developer not found"));
-        developer.setStatus(Status.DELETED);
-        developerRepository.save(developer);
+        Optional<DeveloperEntity> previous = previousOf(id);
+        developerChangeLog.recordById(DeveloperChangeType.SOFT_DELETED, id);
+        int updated = developerRepository.softDeleteById(id);
+
+        if (updated == 0) {
+            throw developerErrorMetrics.notFound();
+        }
+        eventPublisher.publishEvent(deleted(id, previous, false));
     }
 
     @Override
+    @Transactional
     public void hardDeleteById(Integer id) {
-        developerRepository.findById(id)
-                .orElseThrow(() -> new DeveloperNotFoundException("Developer not found"));
-        developerRepository.deleteById(id);
+        Optional<DeveloperEntity> previous = previousOf(id);
+        // deletes are recorded before the statement, afterwards there is no row left to select the change from
+        developerChangeLog.recordById(DeveloperChangeType.HARD_DELETED, id);
+        int deleted = developerRepository.hardDeleteById(id);
+
+        if (deleted == 0) {
+            throw developerErrorMetrics.notFound();
+        }
+        developerEmailFilter.markStale(1);
+        eventPublisher.publishEvent(deleted(id, previous, true));
+    }
+
+    @Override
+    @Transactional
+    public int deleteByIds(Collection<Integer> ids, boolean isHard) {
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        int affected = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            if (isHard) {
+                developerChangeLog.recordByIds(DeveloperChangeType.HARD_DELETED, chunk);
+            } else {
+                developerChangeLog.recordByActiveIds(DeveloperChangeType.SOFT_DELETED, chunk);
+            }
+            affected += isHard
+                    ? developerRepository.hardDeleteAllByIdIn(chunk)
+                    : developerRepository.softDeleteAllByIdIn(chunk);
+        }
+        if (isHard) {
+            developerEmailFilter.markStale(affected);
+        }
+        if (affected > 0) {
+            eventPublisher.publishEvent(DeveloperChangedEvent.deleted(distinctIds, isHard));
+        }
+        return affected;
+    }
+
+    @Override
+    @Transactional
+    public int deleteBySpecialty(String specialty, boolean isHard) {
+        if (!specialtyDictionary.isRegistered(specialty)) {
+            return 0;
+        }
+        developerChangeLog.recordBySpecialty(isHard ? DeveloperChangeType.HARD_DELETED : DeveloperChangeType.SOFT_DELETED,
+                specialty, !isHard);
+        int affected = isHard
+                ? developerRepository.hardDeleteAllBySpecialty(specialty)
+                : developerRepository.softDeleteAllBySpecialty(specialty);
+        if (affected > 0) {
+            eventPublisher.publishEvent(DeveloperChangedEvent.deletedBySpecialty(specialty, isHard));
+        }
+        if (isHard) {
+            developerEmailFilter.markStale(affected);
+        }
+        return affected;
+    }
+
+    @Override
+    @Transactional
+    public int changeSpecialty(Collection<Integer> ids, String specialty) {
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return 0;
+        }
+        int affected = developerRepository.updateSpecialtyByActiveIdIn(distinctIds, specialty);
+        if (affected > 0) {
+            developerChangeLog.recordByActiveIds(DeveloperChangeType.UPDATED, distinctIds);
+            // the listeners need the rows as they are now, the statement cleared the persistence context
+            List<DeveloperEntity> updated = developerRepository.findAllById(distinctIds);
+            eventPublisher.publishEvent(DeveloperChangedEvent.updated(updated));
+        }
+        return affected;
+    }
+
+    private DeveloperEntity afterUpdate(DeveloperEntity developer, Optional<DeveloperEntity> previous) {
+        developerEmailFilter.add(developer.getEmail());
+        eventPublisher.publishEvent(previous
+                .map(row -> DeveloperChangedEvent.updated(developer, row))
+                .orElseGet(() -> DeveloperChangedEvent.updated(developer)));
+        return developer;
+    }
+
+    // only a statistics snapshot kept with lock-previous-row needs the row as it was; otherwise the write stays a
+    // single statement and the event without the previous row makes the next read count again
+    private Optional<DeveloperEntity> previousOf(Integer id) {
+        return developerStatsTracker.needsPreviousRows() ? developerRepository.findByIdForUpdate(id) : Optional.empty();
+    }
+
+    private static DeveloperChangedEvent deleted(Integer id, Optional<DeveloperEntity> previous, boolean isHard) {
+        return previous
+                .map(row -> DeveloperChangedEvent.deleted(row, isHard))
+                .orElseGet(() -> DeveloperChangedEvent.deleted(List.of(id), isHard));
     }
 
+    // clearing the persistence context once per fetch window is far cheaper than detaching every row
+    private void forEachDetached(Stream<DeveloperEntity> developers, Consumer<DeveloperEntity> consumer) {
+        Iterator<DeveloperEntity> iterator = developers.iterator();
+        int consumed = 0;
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            if (++consumed % STREAM_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        entityManager.clear();
+    }
+
+    private static int normalizePageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static Integer normalizeAfterId(Integer afterId) {
+        return Objects.isNull(afterId) ? 0 : afterId;
+    }
+
+    private static DeveloperPage toPage(List<DeveloperEntity> developers, int pageSize) {
+        if (developers.size() <= pageSize) {
+            return new DeveloperPage(developers, null);
+        }
+        List<DeveloperEntity> page = developers.subList(0, pageSize);
+        return new DeveloperPage(page, page.get(pageSize - 1).getId());
+    }
+
+    private static void count(List<BatchItemResult> items, long[] createdAndDuplicates) {
+        for (BatchItemResult item : items) {
+            createdAndDuplicates[item.getStatus() == BatchItemStatus.CREATED ? 0 : 1]++;
+        }
+    }
+
+    private static BatchSaveResult importResult(long[] createdAndDuplicates, long startedAt) {
+        return BatchSaveResult.builder()
+                .created(createdAndDuplicates[0])
+                .duplicates(createdAndDuplicates[1])
+                .elapsedNanos(System.nanoTime() - startedAt)
+                .build();
+    }
+
+    private List<BatchItemResult> saveChunk(List<DeveloperEntity> chunk, int offset) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        List<BatchItemResult> items;
+        try {
+            items = transactionTemplate.execute(status -> insertChunk(chunk, offset));
+        } catch (DataIntegrityViolationException e) {
+            // an email was registered concurrently, fall back to row-by-row inserts for this chunk only
+            items = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                items.add(insertSingle(chunk.get(i), offset + i));
+            }
+            return items;
+        }
+        items.stream()
+                .filter(item -> item.getStatus() == BatchItemStatus.CREATED)
+                .forEach(item -> developerEmailFilter.add(item.getEmail()));
+        return items;
+    }
+
+    private List<BatchItemResult> insertChunk(List<DeveloperEntity> chunk, int offset) {
+        Set<String> emails = new HashSet<>();
+        chunk.stream()
+                .map(DeveloperEntity::getEmail)
+                .filter(Objects::nonNull)
+                .forEach(emails::add);
+        Set<String> existingEmails = emails.isEmpty()
+                ? Set.of()
+                : new HashSet<>(developerRepository.findExistingEmails(emails));
+
+        Set<String> acceptedEmails = new HashSet<>();
+        List<DeveloperEntity> toInsert = new ArrayList<>(chunk.size());
+        List<BatchItemResult> items = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            DeveloperEntity developer = chunk.get(i);
+            String email = developer.getEmail();
+            boolean duplicate = Objects.nonNull(email)
+                    && (existingEmails.contains(email) || !acceptedEmails.add(email));
+            if (duplicate) {
+                items.add(new BatchItemResult(offset + i, null, email, BatchItemStatus.DUPLICATE));
+            } else {
+                developer.setId(null);
+                developer.setVersion(null);
+                toInsert.add(developer);
+                items.add(new BatchItemResult(offset + i, null, email, BatchItemStatus.CREATED));
+            }
+        }
+        developerRepository.saveAll(toInsert);
+        developerRepository.flush();
+        entityManager.clear();
+        if (!toInsert.isEmpty()) {
+            developerChangeLog.recordByIds(DeveloperChangeType.CREATED,
+                    toInsert.stream().map(DeveloperEntity::getId).toList());
+            eventPublisher.publishEvent(DeveloperChangedEvent.created(toInsert));
+        }
+
+        int inserted = 0;
+        for (BatchItemResult item : items) {
+            if (item.getStatus() == BatchItemStatus.CREATED) {
+                item.setId(toInsert.get(inserted++).getId());
+            }
+        }
+        return items;
+    }
+
+    private BatchItemResult insertSingle(DeveloperEntity developer, int index) {
+        // the rolled back chunk may have assigned both, which would make the developer look detached
+        developer.setId(null);
+        developer.setVersion(null);
+        try {
+            // a transaction of its own keeps the insert and its change record together outside the chunk
+            DeveloperEntity savedDeveloper = transactionTemplate.execute(status -> saveDeveloper(developer));
+            return new BatchItemResult(index, savedDeveloper.getId(), savedDeveloper.getEmail(), BatchItemStatus.CREATED);
+        } catch (DeveloperWithDuplicateEmailException e) {
+            return new BatchItemResult(index, null, developer.getEmail(), BatchItemStatus.DUPLICATE);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDeveloperService {
+    Mono<DeveloperEntity> saveDeveloper(DeveloperEntity developer);
+
+    Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer);
+
+    Mono<DeveloperEntity> getDeveloperById(Integer id);
+
+    Mono<DeveloperEntity> getDeveloperByEmail(String email);
+
+    Flux<DeveloperEntity> getAllDevelopers();
+
+    Flux<DeveloperEntity> getAllActiveBySpecialty(String specialty);
+
+    Mono<Void> softDeleteById(Integer id);
+
+    Mono<Void> hardDeleteById(Integer id);
+}
@@ -0,0 +1,136 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperRow;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.metrics.DeveloperErrorMetrics;
+import com.iodkovskaya.testingfordev.repository.ReactiveDeveloperRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Service
+@Profile("reactive")
+public class ReactiveDeveloperServiceImpl implements ReactiveDeveloperService {
+    private final ReactiveDeveloperRepository reactiveDeveloperRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final DeveloperErrorMetrics developerErrorMetrics;
+    private final SpecialtyDictionary specialtyDictionary;
+
+    @Override
+    public Mono<DeveloperEntity> saveDeveloper(DeveloperEntity developer) {
+        return reactiveDeveloperRepository.findByEmail(developer.getEmail())
+                .flatMap(duplicateCandidate -> Mono.<DeveloperRow>error(developerErrorMetrics.duplicateEmail()))
+                .switchIfEmpty(Mono.defer(() -> Mono.zip(reactiveDeveloperRepository.nextId(), specialtyCode(developer))
+                        .flatMap(idAndCode -> {
+                            DeveloperRow row = DeveloperRow.fromEntity(developer, idAndCode.getT2().orElse(null));
+                            row.setId(idAndCode.getT1().intValue());
+                            row.setVersion(0L);
+                            return r2dbcEntityTemplate.insert(row);
+                        })))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> developerErrorMetrics.duplicateEmail())
+                .flatMap(this::toEntity);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer) {
+        return specialtyCode(developer)
+                .flatMap(code -> reactiveDeveloperRepository.updateById(developer.getId(), developer.getEmail(),
+                        developer.getFirstName(), developer.getLastName(), code.orElse(null), developer.getStatus()))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> developerErrorMetrics.duplicateEmail())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(developerErrorMetrics.notFound())
+                        : Mono.fromSupplier(() -> {
+                            developer.setVersion(null);
+                            return developer;
+                        }));
+    }
+
+    @Override
+    public Mono<DeveloperEntity> getDeveloperById(Integer id) {
+        return reactiveDeveloperRepository.findById(id)
+                .switchIfEmpty(Mono.error(developerErrorMetrics::notFound))
+                .flatMap(this::toEntity);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> getDeveloperByEmail(String email) {
+        return reactiveDeveloperRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(developerErrorMetrics::notFound))
+                .flatMap(this::toEntity);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAllDevelopers() {
+        return reactiveDeveloperRepository.findAllByStatus(Status.ACTIVE)
+                .concatMap(this::toEntity);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAllActiveBySpecialty(String specialty) {
+        Optional<Short> loaded = specialtyDictionary.findLoadedCode(specialty);
+        Mono<Optional<Short>> code = loaded.isPresent()
+                ? Mono.just(loaded)
+                : Mono.fromCallable(() -> specialtyDictionary.findCode(specialty))
+                        .subscribeOn(Schedulers.boundedElastic());
+        return code
+                .flatMapMany(found -> found.map(reactiveDeveloperRepository::findAllActiveBySpecialtyCode)
+                        .orElseGet(Flux::empty))
+                .concatMap(this::toEntity);
+    }
+
+    @Override
+    public Mono<Void> softDeleteById(Integer id) {
+        return reactiveDeveloperRepository.softDeleteById(id)
+                .flatMap(this::requireAffected);
+    }
+
+    @Override
+    public Mono<Void> hardDeleteById(Integer id) {
+        return reactiveDeveloperRepository.hardDeleteById(id)
+                .flatMap(this::requireAffected);
+    }
+
+    // the dictionary talks JDBC, so only a name or code that is not loaded yet leaves the event loop for it:
+    // registering a name seen for the first time, or loading one another node registered since the last load
+    private Mono<Optional<Short>> specialtyCode(DeveloperEntity developer) {
+        String specialty = developer.getSpecialty();
+        if (Objects.isNull(specialty)) {
+            return Mono.just(Optional.empty());
+        }
+        Optional<Short> loaded = specialtyDictionary.findLoadedCode(specialty);
+        if (loaded.isPresent()) {
+            return Mono.just(loaded);
+        }
+        return Mono.fromCallable(() -> Optional.ofNullable(specialtyDictionary.codeOf(specialty)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<DeveloperEntity> toEntity(DeveloperRow row) {
+        Short code = row.getSpecialtyCode();
+        Optional<String> loaded = specialtyDictionary.findLoadedName(code);
+        if (Objects.isNull(code) || loaded.isPresent()) {
+            return Mono.just(row.toEntity(loaded.orElse(null)));
+        }
+        return Mono.fromCallable(() -> row.toEntity(specialtyDictionary.nameOf(code)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> requireAffected(int affected) {
+        return affected == 0
+                ? Mono.error(developerErrorMetrics.notFound())
+                : Mono.empty();
+    }
+}
@@ -0,0 +1,128 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeveloperCacheTests {
+    private final DeveloperCache developerCache = new DeveloperCache(100, Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+    @Test
+    public void should_cache_created_developers_and_evict_updated_ones() {
+        //given
+        DeveloperEntity created = developer(1, "john.doe@gmail.com");
+        DeveloperEntity requested = developer(1, "john.black@gmail.com");
+        //when
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.created(List.of(created)));
+        //then
+        assertThat(developerCache.getById(1)).contains(created);
+        assertThat(developerCache.getByEmail("john.doe@gmail.com")).contains(created);
+
+        //when
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.updated(requested));
+        //then
+        assertThat(developerCache.getById(1)).isEmpty();
+        assertThat(developerCache.getByEmail("john.doe@gmail.com")).isEmpty();
+        assertThat(developerCache.getByEmail("john.black@gmail.com")).isEmpty();
+    }
+
+    @Test
+    public void should_evict_deleted_developers() {
+        //given
+        developerCache.put(developer(1, "john.doe@gmail.com"));
+        developerCache.put(developer(2, "mike.smith@mail.com"));
+        developerCache.put(developer(3, "frank.jones@mail.com"));
+        //when
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1), false));
+        //then
+        assertThat(developerCache.getById(1)).isEmpty();
+        assertThat(developerCache.getById(2)).isPresent();
+
+        //when
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.deletedBySpecialty("Java", true));
+        //then
+        assertThat(developerCache.getById(2)).isEmpty();
+        assertThat(developerCache.getById(3)).isEmpty();
+    }
+
+    @Test
+    public void should_hand_out_copies_so_callers_cannot_change_the_cached_developer() {
+        //given
+        DeveloperEntity created = developer(1, "john.doe@gmail.com");
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.created(List.of(created)));
+        //when
+        created.setFirstName("Changed");
+        developerCache.getById(1).orElseThrow().setLastName("Changed");
+        //then
+        DeveloperEntity cached = developerCache.getById(1).orElseThrow();
+        assertThat(cached).isNotSameAs(created);
+        assertThat(cached.getFirstName()).isNotEqualTo("Changed");
+        assertThat(cached.getLastName()).isNotEqualTo("Changed");
+    }
+
+    @Test
+    public void should_not_cache_a_load_that_overlapped_an_eviction_of_the_same_developer() {
+        //given
+        DeveloperEntity stale = developer(1, "john.doe@gmail.com");
+        //when
+        DeveloperEntity loaded = developerCache.loadById(1, () -> {
+            developerCache.onDeveloperChanged(DeveloperChangedEvent.updated(developer(1, "john.black@gmail.com")));
+            return stale;
+        });
+        DeveloperEntity other = developerCache.loadById(2, () -> developer(2, "mike.smith@mail.com"));
+        //then
+        assertThat(loaded).isSameAs(stale);
+        assertThat(developerCache.getById(1)).isEmpty();
+        assertThat(developerCache.getById(2)).contains(other);
+    }
+
+    @Test
+    public void should_not_cache_an_email_load_that_overlapped_any_eviction() {
+        //when
+        developerCache.loadByEmail(() -> {
+            developerCache.evict(7);
+            return developer(1, "john.doe@gmail.com");
+        });
+        developerCache.loadByEmail(() -> developer(2, "mike.smith@mail.com"));
+        //then
+        assertThat(developerCache.getByEmail("john.doe@gmail.com")).isEmpty();
+        assertThat(developerCache.getByEmail("mike.smith@mail.com")).isPresent();
+    }
+
+    @Test
+    public void should_not_cache_a_row_older_than_the_last_committed_write_of_it() {
+        //given
+        DeveloperEntity written = developer(1, "john.doe@gmail.com");
+        written.setVersion(3L);
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.updated(written));
+        developerCache.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(2), true));
+        DeveloperEntity lagging = developer(1, "john.doe@gmail.com");
+        lagging.setVersion(2L);
+        DeveloperEntity caughtUp = developer(1, "john.doe@gmail.com");
+        caughtUp.setVersion(3L);
+        //when
+        developerCache.loadById(1, () -> lagging);
+        developerCache.loadById(2, () -> developer(2, "mike.smith@mail.com"));
+        //then
+        assertThat(developerCache.getById(1)).isEmpty();
+        assertThat(developerCache.getById(2)).isEmpty();
+
+        //when
+        developerCache.loadById(1, () -> caughtUp);
+        //then
+        assertThat(developerCache.getById(1)).contains(caughtUp);
+    }
+
+    private static DeveloperEntity developer(Integer id, String email) {
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(id);
+        developer.setEmail(email);
+        return developer;
+    }
+}
@@ -0,0 +1,235 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperColumnStoreTests {
+    private static final short JAVA = 1;
+    private static final short GO = 2;
+
+    @Mock
+    private DeveloperRepository developerRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private SpecialtyDictionary specialtyDictionary;
+
+    private DeveloperColumnStore columnStore;
+
+    @BeforeEach
+    public void setUp() {
+        columnStore = new DeveloperColumnStore(developerRepository, entityManager, transactionTemplate,
+                specialtyDictionary, true, "loopback");
+        lenient().when(specialtyDictionary.findCode(anyString())).thenReturn(Optional.empty());
+        lenient().when(specialtyDictionary.findCode("Java")).thenReturn(Optional.of(JAVA));
+        lenient().when(specialtyDictionary.findCode("Go")).thenReturn(Optional.of(GO));
+        lenient().when(specialtyDictionary.nameOf(JAVA)).thenReturn("Java");
+        lenient().when(specialtyDictionary.nameOf(GO)).thenReturn("Go");
+    }
+
+    @Test
+    public void should_not_answer_before_warm_up() {
+        //when
+        //then
+        assertThat(columnStore.isWarm()).isFalse();
+        assertThat(columnStore.getById(1)).isEmpty();
+        assertThat(allActive()).isEmpty();
+        assertThat(columnStore.getListStamp()).isEmpty();
+        assertThat(columnStore.getAllActiveDtosBySpecialty("Java")).isEmpty();
+    }
+
+    @Test
+    public void should_answer_reads_from_columns_after_warm_up() {
+        //given
+        DeveloperEntity john = developer(1, "John", "Doe", "john.doe@gmail.com", "Java");
+        warmUp(john,
+                developer(2, "Frank", new String("Doe"), "frank.doe@mail.com", "Java"),
+                developer(3, "Mike", "Smith", "mike.smith@mail.com", "Go"));
+        //when
+        DeveloperEntity obtained = columnStore.getById(1).orElseThrow();
+        //then
+        assertThat(obtained).isEqualTo(john).isNotSameAs(john);
+        assertThat(columnStore.getByEmail("mike.smith@mail.com")).map(DeveloperEntity::getId).contains(3);
+        assertThat(columnStore.getById(4)).isEmpty();
+        assertThat(columnStore.getByEmail("nobody@mail.com")).isEmpty();
+        assertThat(ids(allActive())).containsExactly(1, 2, 3);
+        assertThat(ids(columnStore.getAllActiveDtosBySpecialty("Java"))).containsExactly(1, 2);
+        assertThat(ids(columnStore.getAllActiveDtosBySpecialty("Cobol"))).isEmpty();
+        assertThat(allActive().orElseThrow().get(1).getLastName())
+                .isSameAs(columnStore.getById(1).orElseThrow().getLastName());
+    }
+
+    @Test
+    public void should_apply_creates_updates_and_deletes() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"),
+                developer(2, "Frank", "Jones", "frank.jones@mail.com", "Java"),
+                developer(3, "Mike", "Smith", "mike.smith@mail.com", "Go"));
+        DeveloperEntity created = developer(4, "Anna", "Lee", "anna.lee@mail.com", "Go");
+        DeveloperEntity renamed = developer(1, "John", "Black", "john.black@gmail.com", "Java");
+        renamed.setVersion(null);
+        DeveloperEntity deactivated = developer(3, "Mike", "Smith", "mike.smith@mail.com", "Go");
+        deactivated.setStatus(Status.DELETED);
+        //when
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.created(List.of(created)));
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.updated(renamed));
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.updated(deactivated));
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(2), false));
+        //then
+        assertThat(columnStore.getByEmail("john.doe@gmail.com")).isEmpty();
+        assertThat(columnStore.getByEmail("john.black@gmail.com")).contains(renamed);
+        assertThat(columnStore.getById(1).orElseThrow().getVersion()).isNull();
+        assertThat(columnStore.getById(2)).isEmpty();
+        assertThat(columnStore.getById(3)).isEmpty();
+        assertThat(ids(columnStore.getAllActiveDtosBySpecialty("Go"))).containsExactly(4);
+        assertThat(columnStore.size()).isEqualTo(2);
+
+        //when
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.deletedBySpecialty("Java", true));
+        //then
+        assertThat(ids(allActive())).containsExactly(4);
+    }
+
+    @Test
+    public void should_grow_and_reuse_slots_of_removed_developers() {
+        //given
+        warmUp();
+        List<DeveloperEntity> developers = IntStream.rangeClosed(1, 3000)
+                .mapToObj(id -> developer(id, "First" + id % 7, "Last" + id % 11, "dev" + id + "@mail.com",
+                        id % 2 == 0 ? "Java" : "Go"))
+                .toList();
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.created(developers));
+        List<Integer> removed = IntStream.rangeClosed(1, 1500).boxed().toList();
+        //when
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.deleted(removed, true));
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.created(List.of(
+                developer(3001, "New", "Comer", "dev1@mail.com", "Java"))));
+        //then
+        assertThat(columnStore.size()).isEqualTo(1501);
+        assertThat(columnStore.getById(1500)).isEmpty();
+        assertThat(columnStore.getById(2999).map(DeveloperEntity::getEmail)).contains("dev2999@mail.com");
+        assertThat(columnStore.getByEmail("dev1@mail.com").map(DeveloperEntity::getId)).contains(3001);
+        assertThat(columnStore.getAllActiveDtosBySpecialty("Java").orElseThrow()).hasSize(751);
+    }
+
+    @Test
+    public void should_scan_in_chunks_and_hand_out_each_developer_at_most_once_while_writes_go_on() {
+        //given
+        warmUp(IntStream.rangeClosed(1, 3000)
+                .mapToObj(id -> developer(id, "First", "Last", "dev" + id + "@mail.com", "Java"))
+                .toArray(DeveloperEntity[]::new));
+        List<Integer> scanned = new ArrayList<>();
+        //when
+        columnStore.forEachActive(developer -> {
+            if (scanned.isEmpty()) {
+                // the first chunk is out of the lock, developer 1 comes back in a slot the scan has not reached
+                columnStore.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1, 2000), true));
+                columnStore.onDeveloperChanged(DeveloperChangedEvent.created(List.of(
+                        developer(3001, "New", "Comer", "dev3001@mail.com", "Java"),
+                        developer(1, "First", "Last", "dev1@mail.com", "Java"))));
+            }
+            scanned.add(developer.getId());
+        });
+        //then
+        assertThat(scanned).hasSize(2999).doesNotHaveDuplicates().contains(1).doesNotContain(2000, 3001);
+        assertThat(ids(allActive())).hasSize(3000).contains(1, 3001);
+    }
+
+    @Test
+    public void should_move_the_list_stamp_with_every_applied_change_and_start_over_with_every_build() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"));
+        DeveloperListStamp built = columnStore.getListStamp().orElseThrow();
+        //when
+        columnStore.onDeveloperChanged(DeveloperChangedEvent.updated(
+                developer(1, "John", "Black", "john.doe@gmail.com", "Java")));
+        DeveloperListStamp updated = columnStore.getListStamp().orElseThrow();
+        warmUp(developer(1, "John", "Black", "john.doe@gmail.com", "Java"));
+        DeveloperListStamp rebuilt = columnStore.getListStamp().orElseThrow();
+        //then
+        assertThat(updated.getEpoch()).isEqualTo(built.getEpoch());
+        assertThat(updated.getLastSeq()).isGreaterThan(built.getLastSeq());
+        assertThat(rebuilt.getEpoch()).isGreaterThan(built.getEpoch());
+        assertThat(rebuilt.toEtag()).isNotEqualTo(built.toEtag()).isNotEqualTo(updated.toEtag());
+    }
+
+    @Test
+    public void should_keep_name_pool_within_reach_of_the_live_developers() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"));
+        //when
+        for (int rename = 0; rename < 20_000; rename++) {
+            columnStore.onDeveloperChanged(DeveloperChangedEvent.updated(
+                    developer(1, "John" + rename, "Doe" + rename, "john.doe@gmail.com", "Java")));
+        }
+        //then
+        assertThat(columnStore.pooledNames()).isLessThan(2_000);
+        assertThat(columnStore.getById(1).orElseThrow().getFirstName()).isEqualTo("John19999");
+    }
+
+    @Test
+    public void should_refuse_to_start_next_to_nodes_it_cannot_hear_from() {
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> new DeveloperColumnStore(developerRepository, entityManager,
+                transactionTemplate, specialtyDictionary, true, "postgres"));
+        new DeveloperColumnStore(developerRepository, entityManager, transactionTemplate, specialtyDictionary,
+                false, "postgres");
+    }
+
+    private void warmUp(DeveloperEntity... developers) {
+        BDDMockito.willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        BDDMockito.given(developerRepository.streamAllByStatus(Status.ACTIVE))
+                .willReturn(Stream.of(developers));
+        columnStore.warmUp();
+    }
+
+    private Optional<List<DeveloperDto>> allActive() {
+        List<DeveloperDto> developers = new ArrayList<>();
+        return columnStore.forEachActive(developers::add) ? Optional.of(developers) : Optional.empty();
+    }
+
+    private static List<Integer> ids(Optional<List<DeveloperDto>> developers) {
+        return developers.orElseThrow().stream()
+                .map(DeveloperDto::getId)
+                .sorted()
+                .toList();
+    }
+
+    private static DeveloperEntity developer(Integer id, String firstName, String lastName, String email,
+                                             String specialty) {
+        return new DeveloperEntity(id, email, firstName, lastName, specialty, Status.ACTIVE, 3L);
+    }
+}
@@ -0,0 +1,157 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperSearchIndexTests {
+    @Mock
+    private DeveloperRepository developerRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private DeveloperSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex = new DeveloperSearchIndex(developerRepository, transactionTemplate, true);
+    }
+
+    @Test
+    public void should_not_answer_before_warm_up() {
+        //when
+        //then
+        assertThat(searchIndex.isWarm()).isFalse();
+        assertThat(searchIndex.search("john", 10)).isEmpty();
+    }
+
+    @Test
+    public void should_match_every_term_as_prefix_of_name_specialty_or_email_token() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"),
+                developer(2, "Frank", "Jones", "frank.jones@mail.com", "Java"),
+                developer(3, "Mike", "Smith", "mike.smith@mail.com", "Go"));
+        //when
+        //then
+        assertThat(ids("jo")).containsExactlyInAnyOrder(1, 2);
+        assertThat(ids("JO   do")).containsExactly(1);
+        assertThat(ids("go sm")).containsExactly(3);
+        assertThat(ids("frank.jones@m")).containsExactly(2);
+        assertThat(ids("gmail")).isEmpty();
+        assertThat(ids("jo java")).containsExactlyInAnyOrder(1, 2);
+        assertThat(ids("  ")).isEmpty();
+    }
+
+    @Test
+    public void should_return_exact_token_matches_first_and_respect_limit() {
+        //given
+        warmUp(developer(1, "Johnny", "Walker", "jw@mail.com", "Java"),
+                developer(2, "Jo", "Marsh", "jm@mail.com", "Java"),
+                developer(3, "John", "Lee", "jl@mail.com", "Java"));
+        //when
+        List<DeveloperDto> found = searchIndex.search("jo", 2).orElseThrow();
+        //then
+        assertThat(found).extracting(DeveloperDto::getId).containsExactly(2, 3);
+    }
+
+    @Test
+    public void should_apply_creates_updates_and_deletes() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"),
+                developer(2, "Frank", "Jones", "frank.jones@mail.com", "Java"));
+        DeveloperEntity created = DataUtils.getThirdDeveloperWithoutId();
+        created.setId(3);
+        DeveloperEntity renamed = DataUtils.getFirstDeveloperWithoutId();
+        renamed.setId(1);
+        renamed.setLastName("Black");
+        renamed.setEmail("john.black@gmail.com");
+        //when
+        searchIndex.onDeveloperChanged(DeveloperChangedEvent.created(List.of(created)));
+        searchIndex.onDeveloperChanged(DeveloperChangedEvent.updated(renamed));
+        searchIndex.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(2), false));
+        //then
+        assertThat(ids("mike")).containsExactly(3);
+        assertThat(ids("doe")).isEmpty();
+        assertThat(ids("bl")).containsExactly(1);
+        assertThat(ids("frank")).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_drop_developers_leaving_active_status_and_deleted_by_specialty() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"),
+                developer(2, "Frank", "Jones", "frank.jones@mail.com", "Java Script"),
+                developer(3, "Mike", "Smith", "mike.smith@mail.com", "Go"));
+        DeveloperEntity deactivated = DataUtils.getThirdDeveloperWithoutId();
+        deactivated.setId(3);
+        deactivated.setSpecialty("Go");
+        deactivated.setStatus(Status.DELETED);
+        //when
+        searchIndex.onDeveloperChanged(DeveloperChangedEvent.updated(deactivated));
+        searchIndex.onDeveloperChanged(DeveloperChangedEvent.deletedBySpecialty("Java", true));
+        //then
+        assertThat(ids("mike")).isEmpty();
+        assertThat(ids("java")).containsExactly(2);
+    }
+
+    @Test
+    public void should_refresh_developers_changed_on_another_node_from_the_table() {
+        //given
+        warmUp(developer(1, "John", "Doe", "john.doe@gmail.com", "Java"),
+                developer(2, "Frank", "Jones", "frank.jones@mail.com", "Java"));
+        BDDMockito.willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .given(transactionTemplate).execute(any());
+        BDDMockito.given(developerRepository.findAllActiveDtosByIds(List.of(1, 2, 3)))
+                .willReturn(List.of(developer(1, "John", "Black", "john.black@gmail.com", "Java"),
+                        developer(3, "Anna", "Lee", "anna.lee@mail.com", "Go")));
+        //when
+        searchIndex.refresh(List.of(1, 2, 3));
+        //then
+        assertThat(ids("doe")).isEmpty();
+        assertThat(ids("black")).containsExactly(1);
+        assertThat(ids("frank")).isEmpty();
+        assertThat(ids("anna")).containsExactly(3);
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    private void warmUp(DeveloperDto... developers) {
+        BDDMockito.willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        BDDMockito.given(developerRepository.streamAllActiveDtos())
+                .willReturn(Stream.of(developers));
+        searchIndex.warmUp();
+    }
+
+    private List<Integer> ids(String query) {
+        return searchIndex.search(query, 10).orElseThrow().stream()
+                .map(DeveloperDto::getId)
+                .toList();
+    }
+
+    private static DeveloperDto developer(Integer id, String firstName, String lastName, String email, String specialty) {
+        return new DeveloperDto(id, firstName, lastName, email, specialty, Status.ACTIVE);
+    }
+}
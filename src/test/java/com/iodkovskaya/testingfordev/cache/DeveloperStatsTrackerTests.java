@@ -0,0 +1,150 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperStatsTrackerTests {
+    @Mock
+    private DeveloperRepository developerRepository;
+
+    @Test
+    public void should_apply_created_developers_to_counts_without_querying_again() {
+        //given
+        DeveloperStatsTracker tracker = new DeveloperStatsTracker(developerRepository, true, true, Duration.ofMinutes(1));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 1)));
+        tracker.getStats();
+        DeveloperEntity created = DataUtils.getThirdDeveloperWithoutId();
+        created.setSpecialty("Go");
+        //when
+        tracker.onDeveloperChanged(DeveloperChangedEvent.created(List.of(created)));
+        List<SpecialtyStatusCount> stats = tracker.getStats();
+        //then
+        assertThat(stats).containsExactly(
+                new SpecialtyStatusCount("Go", Status.ACTIVE, 1),
+                new SpecialtyStatusCount("Java", Status.ACTIVE, 1));
+        verify(developerRepository, times(1)).countBySpecialtyAndStatus();
+    }
+
+    @Test
+    public void should_query_again_after_delete() {
+        //given
+        DeveloperStatsTracker tracker = new DeveloperStatsTracker(developerRepository, true, true, Duration.ofMinutes(1));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 1)))
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.DELETED, 1)));
+        tracker.getStats();
+        //when
+        tracker.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1), false));
+        List<SpecialtyStatusCount> stats = tracker.getStats();
+        //then
+        assertThat(stats).containsExactly(new SpecialtyStatusCount("Java", Status.DELETED, 1));
+        verify(developerRepository, times(2)).countBySpecialtyAndStatus();
+    }
+
+    @Test
+    public void should_move_counts_of_single_row_updates_and_deletes_without_querying_again() {
+        //given
+        DeveloperStatsTracker tracker = new DeveloperStatsTracker(developerRepository, true, true, Duration.ofMinutes(1));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 3)));
+        tracker.getStats();
+        DeveloperEntity previous = DataUtils.getFirstDeveloperWithoutId();
+        previous.setId(1);
+        DeveloperEntity moved = DataUtils.getFirstDeveloperWithoutId();
+        moved.setId(1);
+        moved.setSpecialty("Go");
+        DeveloperEntity softDeleted = DataUtils.getThirdDeveloperWithoutId();
+        softDeleted.setId(2);
+        DeveloperEntity hardDeleted = DataUtils.getThirdDeveloperWithoutId();
+        hardDeleted.setId(3);
+        //when
+        tracker.onDeveloperChanged(DeveloperChangedEvent.updated(moved, previous));
+        tracker.onDeveloperChanged(DeveloperChangedEvent.deleted(softDeleted, false));
+        tracker.onDeveloperChanged(DeveloperChangedEvent.deleted(hardDeleted, true));
+        List<SpecialtyStatusCount> stats = tracker.getStats();
+        //then
+        assertThat(stats).containsExactly(
+                new SpecialtyStatusCount("Go", Status.ACTIVE, 1),
+                new SpecialtyStatusCount("Java", Status.DELETED, 1));
+        verify(developerRepository, times(1)).countBySpecialtyAndStatus();
+    }
+
+    @Test
+    public void should_always_query_when_incremental_tracking_is_disabled() {
+        //given
+        DeveloperStatsTracker tracker = new DeveloperStatsTracker(developerRepository, false, true, Duration.ofMinutes(1));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 1)));
+        //when
+        tracker.getStats();
+        tracker.getStats();
+        //then
+        verify(developerRepository, times(2)).countBySpecialtyAndStatus();
+    }
+
+    @Test
+    public void should_only_ask_for_the_previous_row_when_locking_it_is_enabled() {
+        //given
+        DeveloperStatsTracker locking = new DeveloperStatsTracker(developerRepository, true, true, Duration.ofMinutes(1));
+        DeveloperStatsTracker plain = new DeveloperStatsTracker(developerRepository, true, false, Duration.ofMinutes(1));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 1)));
+        boolean beforeFirstRead = locking.needsPreviousRows();
+        //when
+        locking.getStats();
+        plain.getStats();
+        //then
+        assertThat(beforeFirstRead).isFalse();
+        assertThat(locking.needsPreviousRows()).isTrue();
+        assertThat(plain.needsPreviousRows()).isFalse();
+    }
+
+    @Test
+    public void should_not_keep_a_count_taken_while_a_write_was_running() {
+        //given
+        DeveloperStatsTracker tracker = new DeveloperStatsTracker(developerRepository, true, false, Duration.ofMinutes(1));
+        DeveloperEntity created = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperChangedEvent event = DeveloperChangedEvent.created(List.of(created));
+        BDDMockito.given(developerRepository.countBySpecialtyAndStatus())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 1)));
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            tracker.onDeveloperChanging(event);
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        //when
+        List<SpecialtyStatusCount> duringCommit = tracker.getStats();
+        tracker.onDeveloperChanged(event);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        List<SpecialtyStatusCount> afterCommit = tracker.getStats();
+        List<SpecialtyStatusCount> fromMemory = tracker.getStats();
+        //then
+        assertThat(duringCommit).containsExactly(new SpecialtyStatusCount("Java", Status.ACTIVE, 1));
+        assertThat(afterCommit).containsExactly(new SpecialtyStatusCount("Java", Status.ACTIVE, 1));
+        assertThat(fromMemory).containsExactly(new SpecialtyStatusCount("Java", Status.ACTIVE, 1));
+        verify(developerRepository, times(2)).countBySpecialtyAndStatus();
+    }
+}
@@ -0,0 +1,77 @@
+package com.iodkovskaya.testingfordev.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "developers.specialties.reload-interval=1h")
+@Import(SpecialtyDictionary.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SpecialtyDictionaryTests {
+    @Autowired
+    private SpecialtyDictionary specialtyDictionary;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void should_hand_out_a_code_registered_in_a_transaction_only_after_its_commit() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        //when
+        Short[] inTransaction = new Short[2];
+        Optional<Short> seenByOthers = transactionTemplate.execute(status -> {
+            inTransaction[0] = specialtyDictionary.codeOf("Rust");
+            inTransaction[1] = specialtyDictionary.codeOf("Rust");
+            return specialtyDictionary.findLoadedCode("Rust");
+        });
+        //then
+        assertThat(inTransaction[0]).isNotNull().isEqualTo(inTransaction[1]);
+        assertThat(seenByOthers).isEmpty();
+        assertThat(specialtyDictionary.findLoadedCode("Rust")).contains(inTransaction[0]);
+        assertThat(specialtyDictionary.nameOf(inTransaction[0])).isEqualTo("Rust");
+    }
+
+    @Test
+    public void should_leave_nothing_behind_when_the_registering_transaction_rolls_back() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        //when
+        String name = transactionTemplate.execute(status -> {
+            Short code = specialtyDictionary.codeOf("Elixir");
+            status.setRollbackOnly();
+            return specialtyDictionary.nameOf(code);
+        });
+        //then
+        assertThat(name).isEqualTo("Elixir");
+        assertThat(specialtyDictionary.isRegistered("Elixir")).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM specialties WHERE name = 'Elixir'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    public void should_reload_on_a_read_miss_at_most_once_per_interval() {
+        //given
+        specialtyDictionary.codeOf("Scala");
+        jdbcTemplate.update("INSERT INTO specialties (code, name) VALUES (500, 'Kotlin')");
+        //when
+        Optional<Short> beforeReload = specialtyDictionary.findCode("Kotlin");
+        boolean registered = specialtyDictionary.isRegistered("Kotlin");
+        //then
+        assertThat(beforeReload).isEmpty();
+        assertThat(registered).isTrue();
+        assertThat(specialtyDictionary.findCode("Kotlin")).contains((short) 500);
+        assertThat(specialtyDictionary.entries()).containsEntry((short) 500, "Kotlin");
+    }
+}
@@ -0,0 +1,90 @@
+package com.iodkovskaya.testingfordev.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionLimitingDataSourceTests {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection targetConnection;
+
+    @Test
+    public void should_release_permit_when_connection_is_closed() throws SQLException {
+        //given
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(targetConnection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50));
+        //when
+        Connection connection = dataSource.getConnection();
+        int permitsWhileOpen = dataSource.getAvailablePermits();
+        connection.close();
+        connection.close();
+        //then
+        assertThat(permitsWhileOpen).isEqualTo(1);
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    public void should_throw_exception_when_no_permit_is_available_in_time() throws SQLException {
+        //given
+        BDDMockito.given(targetDataSource.getConnection()).willReturn(targetConnection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+        dataSource.getConnection();
+        //when
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        //then
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void should_release_permit_when_target_data_source_fails() throws SQLException {
+        //given
+        BDDMockito.given(targetDataSource.getConnection()).willThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+        //when
+        assertThrows(SQLException.class, dataSource::getConnection);
+        //then
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_size_each_limiter_from_its_pool_and_leave_wrappers_alone() throws Exception {
+        //given
+        BeanPostProcessor postProcessor = VirtualThreadsConfig.connectionLimitingDataSourcePostProcessor(Duration.ofMillis(50));
+        HikariDataSource primary = new HikariDataSource();
+        primary.setMaximumPoolSize(20);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setMaximumPoolSize(10);
+        DelegatingDataSource router = new DelegatingDataSource(targetDataSource);
+        //when
+        Object limitedPrimary = postProcessor.postProcessAfterInitialization(primary, "primaryDataSource");
+        Object limitedReplica = postProcessor.postProcessAfterInitialization(replica, "replicaDataSource");
+        Object routerBean = postProcessor.postProcessAfterInitialization(router, "dataSource");
+        //then
+        assertThat(((ConnectionLimitingDataSource) limitedPrimary).getAvailablePermits()).isEqualTo(20);
+        assertThat(((ConnectionLimitingDataSource) limitedReplica).getAvailablePermits()).isEqualTo(10);
+        assertThat(routerBean).isSameAs(router);
+        ((ConnectionLimitingDataSource) limitedPrimary).close();
+        ((ConnectionLimitingDataSource) limitedReplica).close();
+        assertThat(primary.isClosed()).isTrue();
+        assertThat(replica.isClosed()).isTrue();
+    }
+}
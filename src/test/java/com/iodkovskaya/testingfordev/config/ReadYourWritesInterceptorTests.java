@@ -0,0 +1,86 @@
+package com.iodkovskaya.testingfordev.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesInterceptorTests {
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofSeconds(5));
+
+    @AfterEach
+    public void tearDown() {
+        PrimaryDataSourcePin.clear();
+    }
+
+    @Test
+    public void should_pin_write_and_hand_out_cookie_before_handler_runs() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/developers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when
+        interceptor.preHandle(request, response, null);
+        //then
+        assertThat(PrimaryDataSourcePin.isPinned()).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ReadYourWritesInterceptor.COOKIE + "=")
+                .contains("Max-Age=5", "HttpOnly");
+
+        //when
+        interceptor.afterCompletion(request, response, null, null);
+        //then
+        assertThat(PrimaryDataSourcePin.isPinned()).isFalse();
+    }
+
+    @Test
+    public void should_pin_reads_only_while_cookie_is_fresh() {
+        //given
+        long now = System.currentTimeMillis();
+        //when
+        //then
+        assertThat(pinsRead(new Cookie(ReadYourWritesInterceptor.COOKIE, String.valueOf(now + 5000)))).isTrue();
+        assertThat(pinsRead(new Cookie(ReadYourWritesInterceptor.COOKIE, String.valueOf(now - 1)))).isFalse();
+        assertThat(pinsRead(new Cookie(ReadYourWritesInterceptor.COOKIE, String.valueOf(now + 60_000)))).isFalse();
+        assertThat(pinsRead(new Cookie(ReadYourWritesInterceptor.COOKIE, String.valueOf(Long.MAX_VALUE)))).isFalse();
+        assertThat(pinsRead(new Cookie(ReadYourWritesInterceptor.COOKIE, "soon"))).isFalse();
+        assertThat(pinsRead()).isFalse();
+    }
+
+    @Test
+    public void should_carry_pin_over_to_async_executor() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/developers");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE, String.valueOf(System.currentTimeMillis() + 5000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        boolean pinnedAfterHandOff = PrimaryDataSourcePin.isPinned();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        //when
+        interceptor.preProcess(webRequest, () -> null);
+        boolean pinnedOnExecutor = PrimaryDataSourcePin.isPinned();
+        interceptor.postProcess(webRequest, () -> null, null);
+        //then
+        assertThat(pinnedAfterHandOff).isFalse();
+        assertThat(pinnedOnExecutor).isTrue();
+        assertThat(PrimaryDataSourcePin.isPinned()).isFalse();
+    }
+
+    private boolean pinsRead(Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/developers");
+        request.setCookies(cookies);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        boolean pinned = PrimaryDataSourcePin.isPinned();
+        interceptor.afterCompletion(request, response, null, null);
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        return pinned;
+    }
+}
@@ -0,0 +1,97 @@
+package com.iodkovskaya.testingfordev.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTests {
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryDataSourcePin.clear();
+    }
+
+    @Test
+    public void should_route_read_only_transactions_to_replica_and_the_rest_to_primary() throws SQLException {
+        //given
+        BDDMockito.given(primary.getConnection()).willReturn(primaryConnection);
+        BDDMockito.given(replica.getConnection()).willReturn(replicaConnection);
+        //when
+        Connection outsideTransaction = routingDataSource.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Connection readOnly = routingDataSource.getConnection();
+        //then
+        assertThat(outsideTransaction).isSameAs(primaryConnection);
+        assertThat(readOnly).isSameAs(replicaConnection);
+        assertThat(routes("primary", "false")).isEqualTo(1);
+        assertThat(routes("replica", "false")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_keep_pinned_reads_on_primary() throws SQLException {
+        //given
+        BDDMockito.given(primary.getConnection()).willReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryDataSourcePin.pin();
+        //when
+        Connection connection = routingDataSource.getConnection();
+        //then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routes("primary", "true")).isEqualTo(1);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    public void should_choose_target_at_first_statement_behind_lazy_proxy() throws SQLException {
+        //given
+        BDDMockito.given(replica.getConnection()).willReturn(replicaConnection);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        //when
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        connection.prepareStatement("SELECT 1");
+        //then
+        verify(replicaConnection).prepareStatement("SELECT 1");
+        verifyNoInteractions(primary);
+    }
+
+    private double routes(String route, String pinned) {
+        return meterRegistry.get("developers.datasource.routes").tag("route", route).tag("pinned", pinned).counter().count();
+    }
+}
@@ -2,9 +2,26 @@ package com.iodkovskaya.testingfordev.contorller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.dto.DeveloperPageDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperEventBroadcaster;
+import com.iodkovskaya.testingfordev.exception.ChangesPrunedException;
+import com.iodkovskaya.testingfordev.exception.DeveloperImportException;
 import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperVersionConflictException;
 import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.exception.SearchIndexNotReadyException;
+import com.iodkovskaya.testingfordev.model.BatchItemResult;
+import com.iodkovskaya.testingfordev.model.BatchItemStatus;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import com.iodkovskaya.testingfordev.controller.DeveloperController;
 import com.iodkovskaya.testingfordev.service.DeveloperService;
 import com.iodkovskaya.testingfordev.util.DataUtils;
 import org.hamcrest.CoreMatchers;
@@ -15,17 +32,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@WebMvcTest
+@WebMvcTest(DeveloperController.class)
 public class DeveloperControllerTests {
     @Autowired
     private MockMvc mockMvc;
@@ -36,6 +67,9 @@ public class DeveloperControllerTests {
     @MockBean
     private DeveloperService developerService;
 
+    @MockBean
+    private DeveloperEventBroadcaster eventBroadcaster;
+
     @Test
     public void should_creare_developer_with_correct_data() throws Exception {
         //given
@@ -76,6 +110,145 @@ public class DeveloperControllerTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("Developer with defined email is already exists")));
     }
 
+    @Test
+    public void should_create_developers_in_batch_with_result_per_item() throws Exception {
+        //given
+        List<DeveloperDto> dtos = List.of(DataUtils.getJohnDoeDtoTransient(), DataUtils.getMikeSmithDtoTransient());
+        BatchSaveResult batchResult = BatchSaveResult.builder()
+                .items(List.of(
+                        new BatchItemResult(0, 1, "john.doe@mail.com", BatchItemStatus.CREATED),
+                        new BatchItemResult(1, null, "mike.smith@mail.com", BatchItemStatus.DUPLICATE)))
+                .created(1)
+                .duplicates(1)
+                .elapsedNanos(2_000_000)
+                .build();
+        BDDMockito.given(developerService.saveDevelopers(anyList()))
+                .willReturn(batchResult);
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dtos)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.processed", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsPerSecond", CoreMatchers.is(1000.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status", CoreMatchers.is("DUPLICATE")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_import_developers_from_ndjson_body() throws Exception {
+        //given
+        String body = objectMapper.writeValueAsString(DataUtils.getJohnDoeDtoTransient()) + "\n"
+                + objectMapper.writeValueAsString(DataUtils.getMikeSmithDtoTransient()) + "\n";
+        BDDMockito.given(developerService.importDevelopers(any(Iterator.class)))
+                .willAnswer(invocation -> {
+                    Iterator<DeveloperEntity> developers = invocation.getArgument(0);
+                    int count = 0;
+                    while (developers.hasNext()) {
+                        developers.next();
+                        count++;
+                    }
+                    return BatchSaveResult.builder().created(count).elapsedNanos(1).build();
+                });
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items").doesNotExist());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_report_imported_rows_and_failing_line_when_import_stops() throws Exception {
+        //given
+        BDDMockito.given(developerService.importDevelopers(any(Iterator.class)))
+                .willAnswer(invocation -> {
+                    Iterator<DeveloperEntity> developers = invocation.getArgument(0);
+                    long read = 0;
+                    try {
+                        while (developers.hasNext()) {
+                            developers.next();
+                            read++;
+                        }
+                    } catch (RuntimeException e) {
+                        throw new DeveloperImportException(BatchSaveResult.builder().created(read).build(), e);
+                    }
+                    return BatchSaveResult.builder().build();
+                });
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"firstName\":\"John\"}\n{\"firstName\":\"Mike\"}\n{not json"));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.line", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported.created", CoreMatchers.is(2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_return_bad_request_when_import_body_is_malformed() throws Exception {
+        //given
+        BDDMockito.given(developerService.importDevelopers(any(Iterator.class)))
+                .willAnswer(invocation -> {
+                    Iterator<DeveloperEntity> developers = invocation.getArgument(0);
+                    while (developers.hasNext()) {
+                        developers.next();
+                    }
+                    return BatchSaveResult.builder().build();
+                });
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"firstName\":\"John\"}\n{not json"));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("Import body is not valid NDJSON")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_export_developers_as_ndjson() throws Exception {
+        //given
+        DeveloperEntity first = DataUtils.getFirstDeveloperWithoutId();
+        first.setId(1);
+        DeveloperEntity second = DataUtils.getSecondDeveloperWithoutId();
+        second.setId(2);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<DeveloperEntity> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).given(developerService).exportDevelopers(any(Consumer.class));
+        //when
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/developers/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(asyncResult));
+        //then
+        String[] lines = result
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[1], DeveloperDto.class).getStatus())
+                .isEqualTo(second.getStatus());
+    }
+
     @Test
     public void should_update_developer_successfully() throws Exception {
         //given
@@ -136,6 +309,118 @@ public class DeveloperControllerTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("ACTIVE")));
     }
 
+    @Test
+    public void should_return_etag_with_developer() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        developer.setVersion(2L);
+        BDDMockito.given(developerService.getDeveloperById(1))
+                .willReturn(developer);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/1")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""));
+    }
+
+    @Test
+    public void should_return_not_modified_without_loading_developer_when_etag_matches() throws Exception {
+        //given
+        BDDMockito.given(developerService.getDeveloperVersion(1))
+                .willReturn(2L);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/1")
+                .header("If-None-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        verify(developerService, never()).getDeveloperById(anyInt());
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"2\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    public void should_return_developer_when_etag_is_outdated() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        developer.setVersion(3L);
+        BDDMockito.given(developerService.getDeveloperVersion(1))
+                .willReturn(3L);
+        BDDMockito.given(developerService.getDeveloperById(1))
+                .willReturn(developer);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/1")
+                .header("If-None-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(1)));
+    }
+
+    @Test
+    public void should_update_developer_when_if_match_holds_current_version() throws Exception {
+        //given
+        DeveloperDto dto = DataUtils.getJohnDoeDtoTransient();
+        dto.setId(1);
+        DeveloperEntity entity = dto.toEntity();
+        entity.setVersion(3L);
+        BDDMockito.given(developerService.updateDeveloper(any(DeveloperEntity.class), eq(2L)))
+                .willReturn(entity);
+        //when
+        ResultActions result = mockMvc.perform(put("/api/v1/developers")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+        //then
+        verify(developerService, never()).updateDeveloper(any(DeveloperEntity.class));
+        result
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    public void should_return_precondition_failed_when_if_match_is_stale() throws Exception {
+        //given
+        DeveloperDto dto = DataUtils.getJohnDoeDtoTransient();
+        dto.setId(1);
+        BDDMockito.given(developerService.updateDeveloper(any(DeveloperEntity.class), eq(2L)))
+                .willThrow(new DeveloperVersionConflictException("Developer was changed since the given version"));
+        //when
+        ResultActions result = mockMvc.perform(put("/api/v1/developers")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(412)));
+    }
+
+    @Test
+    public void should_return_precondition_failed_when_if_match_is_weak() throws Exception {
+        //given
+        DeveloperDto dto = DataUtils.getJohnDoeDtoTransient();
+        dto.setId(1);
+        //when
+        ResultActions result = mockMvc.perform(put("/api/v1/developers")
+                .header("If-Match", "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+        //then
+        verify(developerService, never()).updateDeveloper(any(DeveloperEntity.class), anyLong());
+        result
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
     @Test
     public void should_throw_exception_when_developer_not_exists_by_id() throws Exception {
         //given
@@ -152,6 +437,289 @@ public class DeveloperControllerTests {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("Developer not found")));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_stream_all_active_developers_as_json_array() throws Exception {
+        //given
+        DeveloperEntity first = DataUtils.getFirstDeveloperWithoutId();
+        first.setId(1);
+        DeveloperEntity third = DataUtils.getThirdDeveloperWithoutId();
+        third.setId(3);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<DeveloperDto> consumer = invocation.getArgument(0);
+            consumer.accept(DeveloperDto.fromEntity(first));
+            consumer.accept(DeveloperDto.fromEntity(third));
+            return null;
+        }).given(developerService).streamAllDevelopers(any(Consumer.class));
+        BDDMockito.given(developerService.getListStamp())
+                .willReturn(new DeveloperListStamp(23L));
+        //when
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/developers")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(asyncResult));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("John")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].firstName", CoreMatchers.is("Mike")))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"23\""));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_return_not_modified_without_streaming_when_list_etag_matches() throws Exception {
+        //given
+        BDDMockito.given(developerService.getListStamp())
+                .willReturn(new DeveloperListStamp(23L));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers")
+                .header("If-None-Match", "W/\"23\"")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        verify(developerService, never()).streamAllDevelopers(any(Consumer.class));
+    }
+
+    @Test
+    public void should_return_specialty_list_with_etag_and_not_modified_when_it_matches() throws Exception {
+        //given
+        DeveloperListStamp stamp = new DeveloperListStamp(7L);
+        BDDMockito.given(developerService.getListStamp())
+                .willReturn(stamp);
+        BDDMockito.given(developerService.getAllActiveDtosBySpecialty("Java"))
+                .willReturn(List.of(DataUtils.getJohnDoeDtoTransient()));
+        //when
+        ResultActions full = mockMvc.perform(get("/api/v1/developers/specialty/Java")
+                .contentType(MediaType.APPLICATION_JSON));
+        ResultActions cached = mockMvc.perform(get("/api/v1/developers/specialty/Java")
+                .header("If-None-Match", stamp.toEtag())
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        full
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", stamp.toEtag()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", CoreMatchers.is(1)));
+        cached
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        verify(developerService, times(1)).getAllActiveDtosBySpecialty("Java");
+    }
+
+    @Test
+    public void should_change_page_etag_when_a_version_on_the_page_changes() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(5);
+        developer.setVersion(1L);
+        DeveloperPage before = new DeveloperPage(List.of(developer), null);
+        DeveloperEntity updated = DataUtils.getFirstDeveloperWithoutId();
+        updated.setId(5);
+        updated.setVersion(2L);
+        //when
+        String etag = DeveloperPageDto.etag(before);
+        //then
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(etag).isEqualTo(DeveloperPageDto.etag(new DeveloperPage(List.of(developer), null)));
+        assertThat(etag).isNotEqualTo(DeveloperPageDto.etag(new DeveloperPage(List.of(updated), null)));
+        assertThat(etag).isNotEqualTo(DeveloperPageDto.etag(new DeveloperPage(List.of(developer), 5)));
+    }
+
+    @Test
+    public void should_return_page_of_developers_with_next_cursor() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(5);
+        BDDMockito.given(developerService.getActiveDevelopersPage(eq(2), eq(1)))
+                .willReturn(new DeveloperPage(List.of(developer), 5));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers")
+                .param("limit", "1")
+                .param("cursor", DeveloperPageDto.encodeCursor(2))
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items.length()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id", CoreMatchers.is(5)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.is(DeveloperPageDto.encodeCursor(5))));
+    }
+
+    @Test
+    public void should_return_not_modified_when_page_etag_matches() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(5);
+        developer.setVersion(1L);
+        DeveloperPage page = new DeveloperPage(List.of(developer), null);
+        BDDMockito.given(developerService.getActiveBySpecialtyPage("Java", null, 10))
+                .willReturn(page);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/specialty/Java")
+                .param("limit", "10")
+                .header("If-None-Match", DeveloperPageDto.etag(page))
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", DeveloperPageDto.etag(page)))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    public void should_return_bad_request_when_cursor_is_malformed() throws Exception {
+        //given
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/specialty/Java")
+                .param("limit", "10")
+                .param("cursor", "not-a-cursor")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(400)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("Cursor is malformed")));
+    }
+
+    @Test
+    public void should_return_statistics_grouped_by_specialty_and_status() throws Exception {
+        //given
+        BDDMockito.given(developerService.getStatistics())
+                .willReturn(List.of(
+                        new SpecialtyStatusCount("Go", Status.ACTIVE, 1),
+                        new SpecialtyStatusCount("Java", Status.ACTIVE, 2),
+                        new SpecialtyStatusCount("Java", Status.DELETED, 1)));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/stats")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(4)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byStatus.ACTIVE", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.bySpecialty.Java.DELETED", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.bySpecialty.Go.ACTIVE", CoreMatchers.is(1)));
+    }
+
+    @Test
+    public void should_return_changes_since_sequence() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        DeveloperChangesPage page = new DeveloperChangesPage(List.of(
+                new DeveloperChange(11L, 1, DeveloperChangeType.UPDATED, developer),
+                new DeveloperChange(12L, 2, DeveloperChangeType.HARD_DELETED, null)), 12, true);
+        BDDMockito.given(developerService.getChangesSince(10L, 500))
+                .willReturn(page);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/changes")
+                .param("since", "10")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextSince", CoreMatchers.is(12)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore", CoreMatchers.is(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].developer.email", CoreMatchers.is("john.doe@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].deleted", CoreMatchers.is(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].developer").doesNotExist());
+    }
+
+    @Test
+    public void should_answer_gone_for_changes_that_are_no_longer_kept() throws Exception {
+        //given
+        BDDMockito.given(developerService.getChangesSince(10L, 500))
+                .willThrow(new ChangesPrunedException(20L));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/changes")
+                .param("since", "10")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isGone())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(410)));
+    }
+
+    @Test
+    public void should_open_event_stream() throws Exception {
+        //given
+        BDDMockito.given(eventBroadcaster.subscribe())
+                .willReturn(Optional.of(new SseEmitter()));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/events")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+        //then
+        result
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+        verify(eventBroadcaster, times(1)).subscribe();
+    }
+
+    @Test
+    public void should_reject_event_stream_when_subscribers_are_full() throws Exception {
+        //given
+        BDDMockito.given(eventBroadcaster.subscribe())
+                .willReturn(Optional.empty());
+        //when
+        MvcResult started = mockMvc.perform(get("/api/v1/developers/events")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(started));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(503)));
+    }
+
+    @Test
+    public void should_return_search_results() throws Exception {
+        //given
+        DeveloperDto developer = DataUtils.getJohnDoeDtoTransient();
+        developer.setId(1);
+        BDDMockito.given(developerService.searchDevelopers("jo do", 5))
+                .willReturn(List.of(developer));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/search")
+                .param("q", "jo do")
+                .param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is("john.doe@mail.com")));
+    }
+
+    @Test
+    public void should_return_service_unavailable_when_search_index_is_not_ready() throws Exception {
+        //given
+        BDDMockito.given(developerService.searchDevelopers(anyString(), anyInt()))
+                .willThrow(new SearchIndexNotReadyException());
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/search")
+                .param("q", "john")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        verify(developerService, times(1)).searchDevelopers("john", 10);
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(503)));
+    }
+
     @Test
     public void should_do_soft_deleting_when_developer_exists() throws Exception {
         //given
@@ -195,6 +763,54 @@ public class DeveloperControllerTests {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void should_soft_delete_developers_by_ids_and_return_affected_count() throws Exception {
+        //given
+        BDDMockito.given(developerService.deleteByIds(List.of(1, 2, 3), false))
+                .willReturn(2);
+        //when
+        ResultActions result = mockMvc.perform(delete("/api/v1/developers")
+                .param("ids", "1,2,3")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.affected", CoreMatchers.is(2)));
+    }
+
+    @Test
+    public void should_hard_delete_developers_by_specialty_and_return_affected_count() throws Exception {
+        //given
+        BDDMockito.given(developerService.deleteBySpecialty("Java", true))
+                .willReturn(5);
+        //when
+        ResultActions result = mockMvc.perform(delete("/api/v1/developers")
+                .param("specialty", "Java")
+                .param("isHard", "true")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.affected", CoreMatchers.is(5)));
+    }
+
+    @Test
+    public void should_return_bad_request_when_bulk_delete_filter_is_ambiguous() throws Exception {
+        //given
+        //when
+        ResultActions result = mockMvc.perform(delete("/api/v1/developers")
+                .param("ids", "1")
+                .param("specialty", "Java")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        verify(developerService, never()).deleteByIds(anyList(), anyBoolean());
+    }
+
     @Test
     public void should_throw_exception_when_need_hard_deleting_by_id_but_developer_not_exists() throws Exception {
         //given
@@ -0,0 +1,128 @@
+package com.iodkovskaya.testingfordev.contorller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.controller.DeveloperJobController;
+import com.iodkovskaya.testingfordev.dto.DeveloperJobRequestDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import com.iodkovskaya.testingfordev.exception.DeveloperJobNotFoundException;
+import com.iodkovskaya.testingfordev.exception.InvalidDeveloperJobException;
+import com.iodkovskaya.testingfordev.job.DeveloperJobService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(DeveloperJobController.class)
+public class DeveloperJobControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DeveloperJobService developerJobService;
+
+    @Test
+    public void should_accept_job_and_point_to_it() throws Exception {
+        //given
+        DeveloperJobRequestDto dto = DeveloperJobRequestDto.builder()
+                .type(DeveloperJobType.MOVE_SPECIALTY)
+                .specialty("Java")
+                .targetSpecialty("Go")
+                .build();
+        DeveloperJobEntity queued = dto.toEntity();
+        queued.setId(5L);
+        queued.setStatus(DeveloperJobStatus.QUEUED);
+        BDDMockito.given(developerJobService.submit(any(DeveloperJobEntity.class)))
+                .willReturn(queued);
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION,
+                        CoreMatchers.endsWith("/api/v1/developers/jobs/5")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(5)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("QUEUED")));
+    }
+
+    @Test
+    public void should_return_error_when_job_is_invalid() throws Exception {
+        //given
+        BDDMockito.given(developerJobService.submit(any(DeveloperJobEntity.class)))
+                .willThrow(new InvalidDeveloperJobException("Job type must be defined"));
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/developers/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(400)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", CoreMatchers.is("Job type must be defined")));
+    }
+
+    @Test
+    public void should_report_job_progress() throws Exception {
+        //given
+        Instant resumedAt = Instant.parse("2026-01-01T10:00:00Z");
+        DeveloperJobEntity job = DeveloperJobEntity.builder()
+                .id(5L)
+                .type(DeveloperJobType.SOFT_DELETE)
+                .status(DeveloperJobStatus.RUNNING)
+                .emailDomain("mail.com")
+                .total(1000)
+                .processed(400)
+                .processedAtResume(200)
+                .resumedAt(resumedAt)
+                .heartbeatAt(resumedAt.plusSeconds(2))
+                .build();
+        BDDMockito.given(developerJobService.getJob(5L))
+                .willReturn(job);
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/jobs/5")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.progress", CoreMatchers.is(40.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsPerSecond", CoreMatchers.is(100.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.etaSeconds", CoreMatchers.is(6)));
+    }
+
+    @Test
+    public void should_return_not_found_when_job_is_missing() throws Exception {
+        //given
+        BDDMockito.given(developerJobService.getJob(9L))
+                .willThrow(new DeveloperJobNotFoundException("Job with id 9 not found"));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/developers/jobs/9")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is(404)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.iodkovskaya.testingfordev.contorller;
+
+import com.iodkovskaya.testingfordev.controller.ReactiveDeveloperController;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.service.ReactiveDeveloperService;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@WebFluxTest(ReactiveDeveloperController.class)
+@ActiveProfiles("reactive")
+public class ReactiveDeveloperControllerTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveDeveloperService reactiveDeveloperService;
+
+    @Test
+    public void should_creare_developer_with_correct_data() {
+        //given
+        DeveloperDto dto = DataUtils.getJohnDoeDtoTransient();
+        DeveloperEntity entity = DataUtils.getFirstDeveloperWithoutId();
+        entity.setId(1);
+        BDDMockito.given(reactiveDeveloperService.saveDeveloper(any(DeveloperEntity.class)))
+                .willReturn(Mono.just(entity));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post().uri("/api/v1/developers")
+                .bodyValue(dto)
+                .exchange();
+        //then
+        result
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.firstName").isEqualTo("John")
+                .jsonPath("$.status").isEqualTo("ACTIVE");
+    }
+
+    @Test
+    public void should_throw_exception_when_email_is_duplikated() {
+        //given
+        DeveloperDto dto = DataUtils.getJohnDoeDtoTransient();
+        BDDMockito.given(reactiveDeveloperService.saveDeveloper(any(DeveloperEntity.class)))
+                .willReturn(Mono.error(new DeveloperWithDuplicateEmailException("Developer with defined email is already exist")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post().uri("/api/v1/developers")
+                .bodyValue(dto)
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Developer with defined email is already exist");
+    }
+
+    @Test
+    public void should_return_not_found_when_developer_by_id_not_exists() {
+        //given
+        BDDMockito.given(reactiveDeveloperService.getDeveloperById(anyInt()))
+                .willReturn(Mono.error(new DeveloperNotFoundException("Developer not found")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/v1/developers/1")
+                .exchange();
+        //then
+        result
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Developer not found");
+    }
+
+    @Test
+    public void should_stream_all_active_developers() {
+        //given
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperService.getAllDevelopers())
+                .willReturn(Flux.just(developer1, developer3));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/v1/developers")
+                .exchange();
+        //then
+        result
+                .expectStatus().isOk()
+                .expectBodyList(DeveloperDto.class)
+                .hasSize(2);
+    }
+
+    @Test
+    public void should_return_bad_request_when_soft_deleting_developer_not_exists() {
+        //given
+        BDDMockito.given(reactiveDeveloperService.softDeleteById(anyInt()))
+                .willReturn(Mono.error(new DeveloperNotFoundException("Developer not found")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.delete().uri("/api/v1/developers/1")
+                .exchange();
+        //then
+        result
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Developer not found");
+    }
+}
@@ -0,0 +1,49 @@
+package com.iodkovskaya.testingfordev.contorller;
+
+import com.iodkovskaya.testingfordev.controller.SpecialtyController;
+import com.iodkovskaya.testingfordev.model.SpecialtyCount;
+import com.iodkovskaya.testingfordev.service.DeveloperService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(SpecialtyController.class)
+public class SpecialtyControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeveloperService developerService;
+
+    @Test
+    public void should_return_specialties_with_counts() throws Exception {
+        //given
+        BDDMockito.given(developerService.getSpecialties())
+                .willReturn(List.of(
+                        new SpecialtyCount((short) 2, "Go", 1, 1),
+                        new SpecialtyCount((short) 1, "Java", 2, 3)));
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/specialties")
+                .contentType(MediaType.APPLICATION_JSON));
+        //then
+        result
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name", CoreMatchers.is("Go")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].code", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].activeDevelopers", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].totalDevelopers", CoreMatchers.is(3)));
+    }
+}
@@ -0,0 +1,135 @@
+package com.iodkovskaya.testingfordev.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.service.DeveloperChangeLog;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DeveloperEventBroadcasterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeveloperChangeLog developerChangeLog = Mockito.mock(DeveloperChangeLog.class);
+
+    @Test
+    public void should_send_the_same_serialized_frame_to_every_subscriber() throws Exception {
+        //given
+        DeveloperEventBroadcaster broadcaster = broadcaster(8, 10);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        broadcaster.register(first);
+        broadcaster.register(second);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        //when
+        broadcaster.onDeveloperChanged(DeveloperChangedEvent.updated(developer));
+        Set<SseEmitter.DataWithMediaType> firstFrame = first.frames.poll(5, TimeUnit.SECONDS);
+        Set<SseEmitter.DataWithMediaType> secondFrame = second.frames.poll(5, TimeUnit.SECONDS);
+        //then
+        assertThat(firstFrame).isSameAs(secondFrame);
+        assertThat(firstFrame.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()))
+                .contains("event:UPDATED")
+                .contains("\"email\":\"john.doe@gmail.com\"");
+    }
+
+    @Test
+    public void should_use_the_committed_change_seq_as_event_id() throws Exception {
+        //given
+        DeveloperEventBroadcaster broadcaster = broadcaster(8, 10);
+        RecordingEmitter subscriber = new RecordingEmitter();
+        broadcaster.register(subscriber);
+        BDDMockito.given(developerChangeLog.getCommittedSeq())
+                .willReturn(OptionalLong.of(42L));
+        //when
+        broadcaster.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1), true));
+        Set<SseEmitter.DataWithMediaType> frame = subscriber.frames.poll(5, TimeUnit.SECONDS);
+        //then
+        assertThat(frame.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()))
+                .contains("id:42");
+        verify(developerChangeLog, times(1)).watchSeqs();
+    }
+
+    @Test
+    public void should_drop_slow_subscriber_and_keep_delivering_to_others() throws Exception {
+        //given
+        DeveloperEventBroadcaster broadcaster = broadcaster(2, 10);
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.register(slow);
+        broadcaster.register(fast);
+        //when
+        List<Set<?>> received = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(i), true));
+            // the fast subscriber keeps up, the slow one is stuck on its first frame
+            received.add(fast.frames.poll(5, TimeUnit.SECONDS));
+            assertThat(slow.started.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        //then
+        assertThat(received).doesNotContainNull().hasSize(5);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("developers.events.dropped").count()).isEqualTo(1);
+        verify(developerChangeLog, times(2)).watchSeqs();
+        verify(developerChangeLog, times(1)).unwatchSeqs();
+    }
+
+    @Test
+    public void should_reject_subscriber_over_the_limit() {
+        //given
+        DeveloperEventBroadcaster broadcaster = broadcaster(8, 1);
+        broadcaster.register(new RecordingEmitter());
+        //when
+        boolean accepted = broadcaster.register(new RecordingEmitter()).isPresent();
+        //then
+        assertThat(accepted).isFalse();
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private DeveloperEventBroadcaster broadcaster(int bufferSize, int maxSubscribers) {
+        return new DeveloperEventBroadcaster(new ObjectMapper(), developerChangeLog, meterRegistry, bufferSize, maxSubscribers,
+                Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<Set<DataWithMediaType>> frames = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            frames.add(items);
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.iodkovskaya.testingfordev.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.DeveloperStatsTracker;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DeveloperInvalidationBusTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DeveloperSearchIndex peerSearchIndex = mock(DeveloperSearchIndex.class);
+    private final DeveloperStatsTracker peerStatsTracker = mock(DeveloperStatsTracker.class);
+
+    @Test
+    public void should_evict_changed_developers_on_peer_node_after_flush() {
+        //given
+        RecordingTransport transport = new RecordingTransport(Integer.MAX_VALUE);
+        DeveloperCache writerCache = cache();
+        DeveloperCache peerCache = cache();
+        DeveloperInvalidationBus writer = bus(writerCache, transport);
+        bus(peerCache, transport);
+        DeveloperEntity first = developer(1, DataUtils.getFirstDeveloperWithoutId());
+        DeveloperEntity second = developer(2, DataUtils.getSecondDeveloperWithoutId());
+        peerCache.put(first);
+        peerCache.put(second);
+        //when
+        writer.onDeveloperChanged(DeveloperChangedEvent.updated(first));
+        writer.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1, 2), false));
+        boolean evictedBeforeFlush = peerCache.getById(1).isEmpty();
+        writer.flush();
+        //then
+        assertThat(evictedBeforeFlush).isFalse();
+        assertThat(transport.payloads).hasSize(1);
+        assertThat(peerCache.getById(1)).isEmpty();
+        assertThat(peerCache.getById(2)).isEmpty();
+        assertThat(peerCache.getByEmail(first.getEmail())).isEmpty();
+    }
+
+    @Test
+    public void should_clear_peer_cache_after_bulk_delete_by_specialty() {
+        //given
+        RecordingTransport transport = new RecordingTransport(Integer.MAX_VALUE);
+        DeveloperCache peerCache = cache();
+        DeveloperInvalidationBus writer = bus(cache(), transport);
+        bus(peerCache, transport);
+        peerCache.put(developer(3, DataUtils.getThirdDeveloperWithoutId()));
+        //when
+        writer.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1), true));
+        writer.onDeveloperChanged(DeveloperChangedEvent.deletedBySpecialty("Java", true));
+        writer.flush();
+        //then
+        assertThat(transport.payloads).hasSize(1);
+        assertThat(peerCache.byIdSize()).isZero();
+    }
+
+    @Test
+    public void should_refresh_search_index_and_statistics_of_peer_node() {
+        //given
+        RecordingTransport transport = new RecordingTransport(Integer.MAX_VALUE);
+        DeveloperInvalidationBus writer = bus(cache(), mock(DeveloperSearchIndex.class),
+                mock(DeveloperStatsTracker.class), transport);
+        bus(cache(), peerSearchIndex, peerStatsTracker, transport);
+        //when
+        writer.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1, 2), true));
+        writer.flush();
+        //then
+        verify(peerSearchIndex, times(1)).refresh(Set.of(1, 2));
+        verify(peerSearchIndex, never()).warmUp();
+        verify(peerStatsTracker, times(1)).invalidate();
+
+        //when
+        writer.onDeveloperChanged(DeveloperChangedEvent.deletedBySpecialty("Java", true));
+        writer.flush();
+        //then
+        verify(peerSearchIndex, times(1)).warmUp();
+        verify(peerStatsTracker, times(2)).invalidate();
+    }
+
+    @Test
+    public void should_split_batch_that_exceeds_transport_payload_limit() {
+        //given
+        RecordingTransport transport = new RecordingTransport(120);
+        DeveloperInvalidationBus writer = bus(cache(), transport);
+        //when
+        writer.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), true));
+        writer.flush();
+        //then
+        assertThat(transport.payloads).hasSizeGreaterThan(1)
+                .allSatisfy(payload -> assertThat(payload.length()).isLessThanOrEqualTo(120));
+    }
+
+    @Test
+    public void should_clear_peer_cache_on_next_flush_when_send_fails() {
+        //given
+        RecordingTransport transport = new RecordingTransport(Integer.MAX_VALUE);
+        DeveloperCache peerCache = cache();
+        DeveloperInvalidationBus writer = bus(cache(), transport);
+        bus(peerCache, transport);
+        peerCache.put(developer(3, DataUtils.getThirdDeveloperWithoutId()));
+        writer.onDeveloperChanged(DeveloperChangedEvent.deleted(List.of(1), true));
+        transport.failures = 1;
+        writer.flush();
+        boolean keptAfterFailure = peerCache.getById(3).isPresent();
+        //when
+        writer.flush();
+        //then
+        assertThat(keptAfterFailure).isTrue();
+        assertThat(transport.payloads).hasSize(1);
+        assertThat(peerCache.byIdSize()).isZero();
+    }
+
+    private DeveloperInvalidationBus bus(DeveloperCache cache, InvalidationTransport transport) {
+        return bus(cache, peerSearchIndex, peerStatsTracker, transport);
+    }
+
+    private DeveloperInvalidationBus bus(DeveloperCache cache, DeveloperSearchIndex searchIndex,
+                                         DeveloperStatsTracker statsTracker, InvalidationTransport transport) {
+        DeveloperInvalidationBus bus = new DeveloperInvalidationBus(cache, searchIndex, statsTracker, transport,
+                objectMapper, new SimpleMeterRegistry(), 200);
+        bus.subscribe();
+        return bus;
+    }
+
+    private static DeveloperCache cache() {
+        return new DeveloperCache(100, Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    private static DeveloperEntity developer(Integer id, DeveloperEntity developer) {
+        developer.setId(id);
+        return developer;
+    }
+
+    private static class RecordingTransport extends LoopbackInvalidationTransport {
+        private final List<String> payloads = new ArrayList<>();
+        private final int maxPayloadBytes;
+        private int failures;
+
+        private RecordingTransport(int maxPayloadBytes) {
+            this.maxPayloadBytes = maxPayloadBytes;
+        }
+
+        @Override
+        public void send(String payload) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("transport down");
+            }
+            payloads.add(payload);
+            super.send(payload);
+        }
+
+        @Override
+        public int maxPayloadBytes() {
+            return maxPayloadBytes;
+        }
+    }
+}
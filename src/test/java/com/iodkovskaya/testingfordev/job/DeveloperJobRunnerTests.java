@@ -0,0 +1,183 @@
+package com.iodkovskaya.testingfordev.job;
+
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import com.iodkovskaya.testingfordev.repository.DeveloperJobRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.service.DeveloperService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperJobRunnerTests {
+    @Mock
+    private DeveloperJobRepository developerJobRepository;
+    @Mock
+    private DeveloperRepository developerRepository;
+    @Mock
+    private DeveloperService developerService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeveloperJobRunner runner;
+
+    @BeforeEach
+    public void setUp() {
+        runner = new DeveloperJobRunner(developerJobRepository, developerRepository, developerService,
+                transactionTemplate, meterRegistry, 1, 2, Duration.ZERO, Duration.ofMinutes(1));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        runner.shutdown();
+    }
+
+    @Test
+    public void should_process_chunks_and_checkpoint_until_complete() {
+        //given
+        DeveloperJobEntity job = runningJob(DeveloperJobType.MOVE_SPECIALTY);
+        job.setSpecialty("Java");
+        job.setTargetSpecialty("Go");
+        BDDMockito.given(developerJobRepository.findById(7L))
+                .willReturn(Optional.of(job));
+        BDDMockito.given(developerRepository.countActiveMatchingAfter("Java", null, 0))
+                .willReturn(3L);
+        BDDMockito.given(developerRepository.findActiveIdsMatchingAfter("Java", null, 0, Limit.of(2)))
+                .willReturn(List.of(1, 3));
+        BDDMockito.given(developerRepository.findActiveIdsMatchingAfter("Java", null, 3, Limit.of(2)))
+                .willReturn(List.of(5));
+        BDDMockito.given(developerService.changeSpecialty(List.of(1, 3), "Go"))
+                .willReturn(2);
+        BDDMockito.given(developerService.changeSpecialty(List.of(5), "Go"))
+                .willReturn(1);
+        //when
+        runner.run(7L);
+        //then
+        assertThat(job.getStatus()).isEqualTo(DeveloperJobStatus.COMPLETED);
+        assertThat(job.getLastId()).isEqualTo(5);
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getAffected()).isEqualTo(3);
+        assertThat(job.getTotal()).isEqualTo(3);
+        assertThat(job.getStartedAt()).isNotNull();
+        assertThat(job.getFinishedAt()).isNotNull();
+        verify(developerJobRepository, times(2)).saveAndFlush(job);
+        assertThat(meterRegistry.get("developers.jobs.rows").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_resume_behind_the_last_checkpoint() {
+        //given
+        DeveloperJobEntity job = runningJob(DeveloperJobType.SOFT_DELETE);
+        job.setEmailDomain("mail.com");
+        job.setStartedAt(Instant.now().minusSeconds(60));
+        job.setTotal(3);
+        job.setLastId(3);
+        job.setProcessed(2);
+        job.setAffected(2);
+        BDDMockito.given(developerJobRepository.findById(7L))
+                .willReturn(Optional.of(job));
+        BDDMockito.given(developerRepository.findActiveIdsMatchingAfter(null, "%@mail.com", 3, Limit.of(2)))
+                .willReturn(List.of(5));
+        BDDMockito.given(developerService.deleteByIds(List.of(5), false))
+                .willReturn(1);
+        //when
+        runner.run(7L);
+        //then
+        assertThat(job.getStatus()).isEqualTo(DeveloperJobStatus.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getProcessedAtResume()).isEqualTo(2);
+        assertThat(job.getTotal()).isEqualTo(3);
+        verify(developerRepository, never()).countActiveMatchingAfter(any(), any(), any());
+    }
+
+    @Test
+    public void should_stop_when_another_runner_took_the_job_over() {
+        //given
+        DeveloperJobEntity job = runningJob(DeveloperJobType.MOVE_SPECIALTY);
+        job.setSpecialty("Java");
+        job.setTargetSpecialty("Go");
+        BDDMockito.given(developerJobRepository.findById(7L))
+                .willReturn(Optional.of(job));
+        BDDMockito.given(developerRepository.findActiveIdsMatchingAfter("Java", null, 0, Limit.of(2)))
+                .willReturn(List.of(1, 3));
+        BDDMockito.given(developerJobRepository.saveAndFlush(job))
+                .willThrow(new ObjectOptimisticLockingFailureException(DeveloperJobEntity.class, 7L));
+        //when
+        runner.run(7L);
+        //then
+        assertThat(job.getStatus()).isEqualTo(DeveloperJobStatus.RUNNING);
+        assertThat(job.getError()).isNull();
+
+        //given
+        job.setOwner("other-node");
+        //when
+        runner.run(7L);
+        //then
+        verify(developerRepository, times(1)).findActiveIdsMatchingAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    public void should_mark_job_failed_when_a_chunk_fails() {
+        //given
+        DeveloperJobEntity job = runningJob(DeveloperJobType.MOVE_SPECIALTY);
+        job.setSpecialty("Java");
+        job.setTargetSpecialty("Go");
+        BDDMockito.given(developerJobRepository.findById(7L))
+                .willReturn(Optional.of(job));
+        BDDMockito.given(developerRepository.findActiveIdsMatchingAfter("Java", null, 0, Limit.of(2)))
+                .willReturn(List.of(1, 3));
+        BDDMockito.given(developerService.changeSpecialty(anyCollection(), any()))
+                .willThrow(new IllegalStateException("Connection lost"));
+        //when
+        runner.run(7L);
+        //then
+        assertThat(job.getStatus()).isEqualTo(DeveloperJobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("Connection lost");
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.getLastId()).isZero();
+    }
+
+    private DeveloperJobEntity runningJob(DeveloperJobType type) {
+        return DeveloperJobEntity.builder()
+                .id(7L)
+                .type(type)
+                .status(DeveloperJobStatus.RUNNING)
+                .owner(runner.node())
+                .lastId(0)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.iodkovskaya.testingfordev.job;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobStatus;
+import com.iodkovskaya.testingfordev.entity.DeveloperJobType;
+import com.iodkovskaya.testingfordev.exception.DeveloperJobNotFoundException;
+import com.iodkovskaya.testingfordev.exception.InvalidDeveloperJobException;
+import com.iodkovskaya.testingfordev.repository.DeveloperJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperJobServiceTests {
+    @Mock
+    private DeveloperJobRepository developerJobRepository;
+    @Mock
+    private SpecialtyDictionary specialtyDictionary;
+    @InjectMocks
+    private DeveloperJobService developerJobService;
+
+    @Test
+    public void should_queue_valid_job() {
+        //given
+        DeveloperJobEntity job = DeveloperJobEntity.builder()
+                .type(DeveloperJobType.MOVE_SPECIALTY)
+                .specialty("Java")
+                .targetSpecialty("Go")
+                .build();
+        BDDMockito.given(specialtyDictionary.contains("Java"))
+                .willReturn(true);
+        BDDMockito.given(developerJobRepository.save(job))
+                .willReturn(job);
+        //when
+        DeveloperJobEntity queued = developerJobService.submit(job);
+        //then
+        assertThat(queued.getStatus()).isEqualTo(DeveloperJobStatus.QUEUED);
+        assertThat(queued.getLastId()).isZero();
+        assertThat(queued.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    public void should_reject_invalid_jobs() {
+        //given
+        BDDMockito.given(specialtyDictionary.contains("Java"))
+                .willReturn(true);
+        BDDMockito.given(specialtyDictionary.contains("Cobol"))
+                .willReturn(false);
+        //when
+        //then
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .specialty("Java")
+                .build()));
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .type(DeveloperJobType.SOFT_DELETE)
+                .build()));
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .type(DeveloperJobType.SOFT_DELETE)
+                .specialty("Cobol")
+                .build()));
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .type(DeveloperJobType.SOFT_DELETE)
+                .emailDomain("%")
+                .build()));
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .type(DeveloperJobType.MOVE_SPECIALTY)
+                .specialty("Java")
+                .build()));
+        assertThrows(InvalidDeveloperJobException.class, () -> developerJobService.submit(DeveloperJobEntity.builder()
+                .type(DeveloperJobType.MOVE_SPECIALTY)
+                .specialty("Java")
+                .targetSpecialty("Java")
+                .build()));
+        verify(developerJobRepository, never()).save(any());
+    }
+
+    @Test
+    public void should_throw_exception_when_job_not_found() {
+        //given
+        BDDMockito.given(developerJobRepository.findById(1L))
+                .willReturn(Optional.empty());
+        //when
+        //then
+        assertThrows(DeveloperJobNotFoundException.class, () -> developerJobService.getJob(1L));
+    }
+}
@@ -0,0 +1,49 @@
+package com.iodkovskaya.testingfordev.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementInspectorTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementInspector inspector = new SqlStatementInspector(meterRegistry);
+
+    @Test
+    public void should_count_statements_by_type_and_leave_sql_unchanged() {
+        //given
+        String select = "select d1_0.id from developers d1_0 where d1_0.email=?";
+        //when
+        String inspected = inspector.inspect(select);
+        inspector.inspect("  (select 1)");
+        inspector.inspect("insert into developers (email,id) values (?,?)");
+        inspector.inspect("UPDATE developers SET status='DELETED' WHERE id=?");
+        inspector.inspect("delete from developers where id=?");
+        inspector.inspect("call next value for developers_seq");
+        //then
+        assertThat(inspected).isSameAs(select);
+        assertThat(count("select")).isEqualTo(2);
+        assertThat(count("insert")).isEqualTo(1);
+        assertThat(count("update")).isEqualTo(1);
+        assertThat(count("delete")).isEqualTo(1);
+        assertThat(count("other")).isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_statements_of_the_current_request_only() {
+        //given
+        inspector.inspect("select 1");
+        //when
+        RequestSqlStatements.start();
+        inspector.inspect("select 1");
+        inspector.inspect("update developers set status='DELETED' where id=?");
+        int statements = RequestSqlStatements.stop();
+        //then
+        assertThat(statements).isEqualTo(2);
+        assertThat(RequestSqlStatements.stop()).isZero();
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("developers.sql.statements").tag("type", type).counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.iodkovskaya.testingfordev.outbox;
+
+import com.iodkovskaya.testingfordev.entity.OutboxOffsetEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import com.iodkovskaya.testingfordev.repository.OutboxOffsetRepository;
+import com.iodkovskaya.testingfordev.service.DeveloperChangeLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DeveloperOutboxRelayTests {
+    @Mock
+    private DeveloperChangeLog developerChangeLog;
+    @Mock
+    private DeveloperChangeRepository developerChangeRepository;
+    @Mock
+    private OutboxOffsetRepository outboxOffsetRepository;
+    @Mock
+    private OutboxSink outboxSink;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeveloperOutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        relay = new DeveloperOutboxRelay(developerChangeLog, developerChangeRepository, outboxOffsetRepository,
+                outboxSink, transactionTemplate, meterRegistry, 2, 10, Duration.ofSeconds(30));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    public void should_relay_batches_until_caught_up_and_store_offset() {
+        //given
+        OutboxOffsetEntity offset = new OutboxOffsetEntity(DeveloperOutboxRelay.OFFSET_NAME, 10L, null);
+        BDDMockito.given(outboxOffsetRepository.findForUpdate(DeveloperOutboxRelay.OFFSET_NAME))
+                .willReturn(Optional.of(offset));
+        List<DeveloperChange> first = List.of(change(11L, 1), change(12L, 2));
+        List<DeveloperChange> second = List.of(change(13L, 3));
+        BDDMockito.given(developerChangeLog.getChangesSince(10L, 2))
+                .willReturn(new DeveloperChangesPage(first, 12L, true));
+        BDDMockito.given(developerChangeLog.getChangesSince(12L, 2))
+                .willReturn(new DeveloperChangesPage(second, 13L, false));
+        //when
+        relay.relay();
+        //then
+        verify(outboxSink).publish(first);
+        verify(outboxSink).publish(second);
+        assertThat(offset.getLastSeq()).isEqualTo(13L);
+        assertThat(offset.getClaimedUntil()).isNull();
+        assertThat(meterRegistry.counter("developers.outbox.relayed").count()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_keep_offset_and_release_claim_when_sink_fails() {
+        //given
+        OutboxOffsetEntity offset = new OutboxOffsetEntity(DeveloperOutboxRelay.OFFSET_NAME, 10L, null);
+        BDDMockito.given(outboxOffsetRepository.findForUpdate(DeveloperOutboxRelay.OFFSET_NAME))
+                .willReturn(Optional.of(offset));
+        BDDMockito.given(developerChangeLog.getChangesSince(10L, 2))
+                .willReturn(new DeveloperChangesPage(List.of(change(11L, 1)), 11L, false));
+        BDDMockito.willThrow(new IllegalStateException("sink is down"))
+                .given(outboxSink).publish(anyList());
+        //when
+        relay.relay();
+        //then
+        assertThat(offset.getLastSeq()).isEqualTo(10L);
+        assertThat(offset.getClaimedUntil()).isNull();
+        assertThat(meterRegistry.counter("developers.outbox.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_publish_with_the_claim_committed_and_no_transaction_open() {
+        //given
+        OutboxOffsetEntity offset = new OutboxOffsetEntity(DeveloperOutboxRelay.OFFSET_NAME, 10L, null);
+        BDDMockito.given(outboxOffsetRepository.findForUpdate(DeveloperOutboxRelay.OFFSET_NAME))
+                .willReturn(Optional.of(offset));
+        BDDMockito.given(developerChangeLog.getChangesSince(10L, 2))
+                .willReturn(new DeveloperChangesPage(List.of(change(11L, 1)), 11L, false));
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        BDDMockito.willAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        }).given(transactionTemplate).execute(any());
+        List<Instant> claimedWhilePublishing = new ArrayList<>();
+        BDDMockito.willAnswer(invocation -> {
+            assertThat(inTransaction).isFalse();
+            claimedWhilePublishing.add(offset.getClaimedUntil());
+            return null;
+        }).given(outboxSink).publish(anyList());
+        //when
+        relay.relay();
+        //then
+        assertThat(claimedWhilePublishing).singleElement().matches(claimedUntil -> claimedUntil.isAfter(Instant.now()));
+        assertThat(offset.getLastSeq()).isEqualTo(11L);
+        assertThat(offset.getClaimedUntil()).isNull();
+    }
+
+    @Test
+    public void should_leave_batch_alone_while_another_relay_holds_the_claim() {
+        //given
+        OutboxOffsetEntity offset = new OutboxOffsetEntity(DeveloperOutboxRelay.OFFSET_NAME, 10L,
+                Instant.now().plusSeconds(10));
+        BDDMockito.given(outboxOffsetRepository.findForUpdate(DeveloperOutboxRelay.OFFSET_NAME))
+                .willReturn(Optional.of(offset));
+        //when
+        relay.relay();
+        //then
+        verify(developerChangeLog, never()).getChangesSince(anyLong(), anyInt());
+        verify(outboxSink, never()).publish(anyList());
+    }
+
+    private static DeveloperChange change(long seq, int developerId) {
+        return new DeveloperChange(seq, developerId, DeveloperChangeType.HARD_DELETED, null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.iodkovskaya.testingfordev.repository;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SpecialtyDictionary.class)
+public class DeveloperChangeRepositoryTests {
+    @Autowired
+    private DeveloperRepository developerRepository;
+    @Autowired
+    private DeveloperChangeRepository developerChangeRepository;
+    @Autowired
+    private SpecialtyDictionary specialtyDictionary;
+
+    @BeforeEach
+    public void setUp() {
+        developerChangeRepository.deleteAll();
+        developerRepository.deleteAll();
+    }
+
+    @Test
+    public void should_record_one_change_per_selected_developer() {
+        //given
+        DeveloperEntity first = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity second = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity third = DataUtils.getThirdDeveloperWithoutId();
+        third.setSpecialty("Go");
+        developerRepository.saveAllAndFlush(List.of(first, second, third));
+        Instant now = Instant.now();
+        //when
+        int byIds = developerChangeRepository.insertChangesByIds("CREATED", now, List.of(first.getId(), -1));
+        int byActiveIds = developerChangeRepository.insertChangesByActiveIds("SOFT_DELETED", now,
+                List.of(first.getId(), second.getId()));
+        Short java = specialtyDictionary.findCode("Java").orElseThrow();
+        int bySpecialty = developerChangeRepository.insertChangesBySpecialty("HARD_DELETED", now, java);
+        int byActiveSpecialty = developerChangeRepository.insertChangesByActiveSpecialty("SOFT_DELETED", now, java);
+        //then
+        assertThat(byIds).isEqualTo(1);
+        assertThat(byActiveIds).isEqualTo(1);
+        assertThat(bySpecialty).isEqualTo(2);
+        assertThat(byActiveSpecialty).isEqualTo(1);
+        assertThat(developerChangeRepository.publishStaged()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_publish_staged_changes_in_staging_order_and_clear_them() {
+        //given
+        DeveloperEntity first = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        DeveloperEntity third = developerRepository.saveAndFlush(DataUtils.getThirdDeveloperWithoutId());
+        Instant now = Instant.now();
+        developerChangeRepository.insertChangesByIds("UPDATED", now, List.of(third.getId()));
+        developerChangeRepository.insertChangesByIds("CREATED", now, List.of(first.getId()));
+        //when
+        int published = developerChangeRepository.publishStaged();
+        int cleared = developerChangeRepository.clearStaged();
+        //then
+        assertThat(published).isEqualTo(2);
+        assertThat(cleared).isEqualTo(2);
+        assertThat(developerChangeRepository.findChangesAfter(0L, Limit.of(10)))
+                .extracting(DeveloperChange::getDeveloperId)
+                .containsExactly(third.getId(), first.getId());
+        assertThat(developerChangeRepository.publishStaged()).isZero();
+    }
+
+    @Test
+    public void should_return_changes_after_sequence_with_the_row_each_write_left() {
+        //given
+        DeveloperEntity first = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        DeveloperEntity third = developerRepository.saveAndFlush(DataUtils.getThirdDeveloperWithoutId());
+        Instant now = Instant.now();
+        developerChangeRepository.insertChangesByIds("CREATED", now, List.of(first.getId(), third.getId()));
+        developerChangeRepository.insertChangesByActiveIds("SOFT_DELETED", now, List.of(first.getId()));
+        developerChangeRepository.insertChangesByIds("HARD_DELETED", now, List.of(third.getId()));
+        developerChangeRepository.publishStaged();
+        developerChangeRepository.clearStaged();
+        developerRepository.hardDeleteById(third.getId());
+        List<DeveloperChange> all = developerChangeRepository.findChangesAfter(0L, Limit.of(10));
+        //when
+        List<DeveloperChange> afterFirst = developerChangeRepository.findChangesAfter(all.get(0).getSeq(), Limit.of(10));
+        //then
+        assertThat(all).hasSize(4);
+        assertThat(all.get(0).getDeveloper().getEmail()).isEqualTo(first.getEmail());
+        assertThat(all.get(0).getDeveloper().getStatus()).isEqualTo(Status.ACTIVE);
+        assertThat(afterFirst).extracting(DeveloperChange::getType)
+                .containsExactly(DeveloperChangeType.CREATED, DeveloperChangeType.SOFT_DELETED, DeveloperChangeType.HARD_DELETED);
+        assertThat(afterFirst.get(0).getDeveloper().getEmail()).isEqualTo(third.getEmail());
+        assertThat(afterFirst.get(1).getDeveloper().getStatus()).isEqualTo(Status.DELETED);
+        assertThat(afterFirst.get(1).getDeveloper().getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(afterFirst.get(2).isTombstone()).isTrue();
+    }
+}
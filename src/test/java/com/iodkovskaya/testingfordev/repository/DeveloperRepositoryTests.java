@@ -1,23 +1,41 @@
 package com.iodkovskaya.testingfordev.repository;
 
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
 import com.iodkovskaya.testingfordev.util.DataUtils;
+import com.iodkovskaya.testingfordev.util.SqlStatementCounter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyString;
 
-@DataJpaTest
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", SqlStatementCounter.PROPERTY})
+@Import(SpecialtyDictionary.class)
 public class DeveloperRepositoryTests {
     @Autowired
     private DeveloperRepository developerRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private SpecialtyDictionary specialtyDictionary;
 
     @BeforeEach
     public void setUp() {
@@ -30,10 +48,12 @@ public class DeveloperRepositoryTests {
         DeveloperEntity developerToSave = DataUtils.getFirstDeveloperWithoutId();
 
         //when
-        DeveloperEntity savedDeveloper = developerRepository.save(developerToSave);
+        SqlStatementCounter.reset();
+        DeveloperEntity savedDeveloper = developerRepository.saveAndFlush(developerToSave);
         //then
         assertThat(savedDeveloper).isNotNull();
         assertThat(savedDeveloper.getId()).isNotNull();
+        SqlStatementCounter.assertStatementCounts(0, 1, 0, 0);
     }
 
     @Test
@@ -100,6 +120,39 @@ public class DeveloperRepositoryTests {
         assertThat(foundDeveloper.getEmail()).isEqualTo(developer.getEmail());
     }
 
+    @Test
+    public void should_reject_developer_with_duplicate_email() {
+        //given
+        developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        //when
+        //then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId()));
+    }
+
+    @Test
+    public void should_find_only_existing_emails_from_input_set() {
+        //given
+        developerRepository.saveAll(List.of(DataUtils.getFirstDeveloperWithoutId(), DataUtils.getSecondDeveloperWithoutId()));
+        //when
+        List<String> existing = developerRepository.findExistingEmails(List.of("john.doe@gmail.com", "unknown@mail.com"));
+        //then
+        assertThat(existing).containsExactly("john.doe@gmail.com");
+    }
+
+    @Test
+    public void should_stream_all_registered_emails() {
+        //given
+        developerRepository.saveAll(List.of(DataUtils.getFirstDeveloperWithoutId(), DataUtils.getSecondDeveloperWithoutId()));
+        //when
+        List<String> emails;
+        try (Stream<String> stream = developerRepository.streamAllEmails()) {
+            emails = stream.toList();
+        }
+        //then
+        assertThat(emails).containsExactlyInAnyOrder("john.doe@gmail.com", "frank.jones@mail.com");
+    }
+
     @Test
     public void should_find_only_active_and_with_input_status_developers() {
         //given
@@ -115,6 +168,298 @@ public class DeveloperRepositoryTests {
         assertThat(listDevelopers.size()).isEqualTo(2);
     }
 
+    @Test
+    public void should_find_only_developers_with_input_status() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+
+        developerRepository.saveAll(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        List<DeveloperEntity> listDevelopers = developerRepository.findAllByStatus(Status.ACTIVE);
+        //then
+        assertThat(listDevelopers).extracting(DeveloperEntity::getStatus).containsOnly(Status.ACTIVE);
+        assertThat(listDevelopers.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_stream_only_developers_with_input_status() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+
+        developerRepository.saveAll(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        List<DeveloperEntity> listDevelopers;
+        try (Stream<DeveloperEntity> developers = developerRepository.streamAllByStatus(Status.DELETED)) {
+            listDevelopers = developers.toList();
+        }
+        //then
+        assertThat(listDevelopers.size()).isEqualTo(1);
+        assertThat(listDevelopers.get(0).getEmail()).isEqualTo(developerSecond.getEmail());
+    }
+
+    @Test
+    public void should_page_active_developers_by_id_after_cursor() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        SqlStatementCounter.reset();
+        List<DeveloperEntity> firstPage = developerRepository.findActivePageAfter(0, Limit.of(1));
+        List<DeveloperEntity> secondPage = developerRepository.findActiveBySpecialtyPageAfter(
+                "Java", firstPage.get(0).getId(), Limit.of(10));
+        //then
+        SqlStatementCounter.assertStatementCounts(2, 0, 0, 0);
+        assertThat(firstPage).extracting(DeveloperEntity::getEmail).containsExactly(developerFirst.getEmail());
+        assertThat(secondPage).extracting(DeveloperEntity::getEmail).containsExactly(developerThird.getEmail());
+    }
+
+    @Test
+    public void should_update_developer_with_single_statement_instead_of_lookup_and_merge() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        Integer id = developer.getId();
+        testEntityManager.clear();
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        //when
+        statistics.clear();
+        DeveloperEntity detached = DataUtils.getFirstDeveloperWithoutId();
+        detached.setId(id);
+        detached.setVersion(developer.getVersion());
+        detached.setLastName("Merged");
+        developerRepository.existsById(id);
+        developerRepository.saveAndFlush(detached);
+        long lookupAndMergeStatements = statistics.getPrepareStatementCount();
+        testEntityManager.clear();
+
+        statistics.clear();
+        int updated = developerRepository.updateById(id, developer.getEmail(), "John", "Updated", "Java", Status.ACTIVE);
+        long singleUpdateStatements = statistics.getPrepareStatementCount();
+        //then
+        assertThat(updated).isEqualTo(1);
+        assertThat(lookupAndMergeStatements).isEqualTo(3);
+        assertThat(singleUpdateStatements).isEqualTo(1);
+        assertThat(developerRepository.findById(id).orElseThrow().getLastName()).isEqualTo("Updated");
+    }
+
+    @Test
+    public void should_bump_version_on_update_only_when_expected_version_matches() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        Integer id = developer.getId();
+        Long version = developer.getVersion();
+        //when
+        int updated = developerRepository.updateByIdAndVersion(id, version, developer.getEmail(),
+                "John", "Updated", "Java", Status.ACTIVE);
+        int stale = developerRepository.updateByIdAndVersion(id, version, developer.getEmail(),
+                "John", "Stale", "Java", Status.ACTIVE);
+        developerRepository.softDeleteById(id);
+        //then
+        assertThat(version).isZero();
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(developerRepository.findVersionById(id)).contains(2L);
+        assertThat(developerRepository.findById(id).orElseThrow().getLastName()).isEqualTo("Updated");
+        assertThat(developerRepository.findVersionById(-1)).isEmpty();
+    }
+
+    @Test
+    public void should_report_zero_affected_rows_when_single_statement_target_is_missing() {
+        //given
+        //when
+        int updated = developerRepository.updateById(-1, "nobody@mail.com", "No", "Body", "Java", Status.ACTIVE);
+        int softDeleted = developerRepository.softDeleteById(-1);
+        int hardDeleted = developerRepository.hardDeleteById(-1);
+        //then
+        assertThat(updated).isZero();
+        assertThat(softDeleted).isZero();
+        assertThat(hardDeleted).isZero();
+    }
+
+    @Test
+    public void should_soft_delete_developers_by_ids_in_one_statement() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        SqlStatementCounter.reset();
+        int affected = developerRepository.softDeleteAllByIdIn(
+                List.of(developerFirst.getId(), developerSecond.getId()));
+        //then
+        SqlStatementCounter.assertStatementCounts(0, 0, 1, 0);
+        assertThat(affected).isEqualTo(1);
+        assertThat(developerRepository.findAllByStatus(Status.ACTIVE))
+                .extracting(DeveloperEntity::getId)
+                .containsExactly(developerThird.getId());
+    }
+
+    @Test
+    public void should_soft_delete_active_developers_by_specialty() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        developerThird.setSpecialty("Go");
+        developerRepository.saveAllAndFlush(List.of(developerFirst, DataUtils.getSecondDeveloperWithoutId(), developerThird));
+        //when
+        SqlStatementCounter.reset();
+        int affected = developerRepository.softDeleteAllBySpecialty("Java");
+        //then
+        SqlStatementCounter.assertStatementCounts(0, 0, 1, 0);
+        assertThat(affected).isEqualTo(1);
+        assertThat(developerRepository.findById(developerFirst.getId()).orElseThrow().getStatus())
+                .isEqualTo(Status.DELETED);
+    }
+
+    @Test
+    public void should_hard_delete_developers_by_ids_and_by_specialty() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        developerThird.setSpecialty("Go");
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        SqlStatementCounter.reset();
+        int affectedByIds = developerRepository.hardDeleteAllByIdIn(List.of(developerThird.getId()));
+        int affectedBySpecialty = developerRepository.hardDeleteAllBySpecialty("Java");
+        //then
+        SqlStatementCounter.assertStatementCounts(0, 0, 0, 2);
+        assertThat(affectedByIds).isEqualTo(1);
+        assertThat(affectedBySpecialty).isEqualTo(2);
+        assertThat(developerRepository.count()).isZero();
+    }
+
+    @Test
+    public void should_project_only_active_developers_with_input_specialty_to_dtos() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        SqlStatementCounter.reset();
+        List<DeveloperDto> dtos = developerRepository.findAllActiveDtosBySpecialty("Java");
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+        assertThat(dtos).extracting(DeveloperDto::getEmail)
+                .containsExactlyInAnyOrder(developerFirst.getEmail(), developerThird.getEmail());
+        assertThat(dtos.get(0).getId()).isNotNull();
+    }
+
+    @Test
+    public void should_project_only_active_developers_with_input_ids_to_dtos() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        SqlStatementCounter.reset();
+        List<DeveloperDto> dtos = developerRepository.findAllActiveDtosByIds(
+                List.of(developerFirst.getId(), developerSecond.getId(), 999));
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+        assertThat(dtos).extracting(DeveloperDto::getId).containsExactly(developerFirst.getId());
+    }
+
+    @Test
+    public void should_count_developers_grouped_by_specialty_and_status() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        DeveloperEntity developerFourth = DataUtils.getThirdDeveloperWithoutId();
+        developerThird.setSpecialty("Go");
+        developerFourth.setEmail("mike.smith@gmail.com");
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird, developerFourth));
+        //when
+        SqlStatementCounter.reset();
+        List<SpecialtyStatusCount> counts = developerRepository.countBySpecialtyAndStatus();
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+        assertThat(counts).containsExactly(
+                new SpecialtyStatusCount("Go", Status.ACTIVE, 1),
+                new SpecialtyStatusCount("Java", Status.ACTIVE, 2),
+                new SpecialtyStatusCount("Java", Status.DELETED, 1));
+    }
+
+    @Test
+    public void should_store_specialty_as_dictionary_code_and_share_the_name() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerThird));
+        testEntityManager.clear();
+        //when
+        Object storedCode = testEntityManager.getEntityManager()
+                .createNativeQuery("SELECT specialty_code FROM developers WHERE id = ?1")
+                .setParameter(1, developerFirst.getId())
+                .getSingleResult();
+        List<DeveloperEntity> developers = developerRepository.findAllActiveBySpecialty("Java");
+        //then
+        assertThat(((Number) storedCode).shortValue()).isEqualTo(specialtyDictionary.findCode("Java").orElseThrow());
+        assertThat(developers).hasSize(2);
+        assertThat(developers.get(0).getSpecialty()).isSameAs(developers.get(1).getSpecialty());
+    }
+
+    @Test
+    public void should_page_active_developers_matching_job_filter_by_id() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        DeveloperEntity developerThird = DataUtils.getThirdDeveloperWithoutId();
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond, developerThird));
+        //when
+        List<Integer> firstPage = developerRepository.findActiveIdsMatchingAfter("Java", null, 0, Limit.of(1));
+        List<Integer> secondPage = developerRepository.findActiveIdsMatchingAfter("Java", null, firstPage.get(0), Limit.of(1));
+        List<Integer> byDomain = developerRepository.findActiveIdsMatchingAfter(null, "%@mail.com", 0, Limit.of(10));
+        long remaining = developerRepository.countActiveMatchingAfter("Java", null, developerFirst.getId());
+        //then
+        assertThat(firstPage).containsExactly(developerFirst.getId());
+        assertThat(secondPage).containsExactly(developerThird.getId());
+        assertThat(byDomain).containsExactly(developerThird.getId());
+        assertThat(remaining).isEqualTo(1);
+    }
+
+    @Test
+    public void should_change_specialty_of_active_developers_only() {
+        //given
+        DeveloperEntity developerFirst = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developerSecond = DataUtils.getSecondDeveloperWithoutId();
+        developerRepository.saveAllAndFlush(List.of(developerFirst, developerSecond));
+        //when
+        int affected = developerRepository.updateSpecialtyByActiveIdIn(
+                List.of(developerFirst.getId(), developerSecond.getId()), "Go");
+        //then
+        assertThat(affected).isEqualTo(1);
+        DeveloperEntity moved = developerRepository.findById(developerFirst.getId()).orElseThrow();
+        assertThat(moved.getSpecialty()).isEqualTo("Go");
+        assertThat(moved.getVersion()).isEqualTo(developerFirst.getVersion() + 1);
+        assertThat(developerRepository.findById(developerSecond.getId()).orElseThrow().getSpecialty()).isEqualTo("Java");
+    }
+
+    @Test
+    public void should_use_indexes_for_specialty_and_email_lookups() {
+        //given
+        //when
+        String specialtyPlan = explain("SELECT id FROM developers WHERE specialty_code = 1 AND status = 'ACTIVE'");
+        String emailPlan = explain("SELECT id FROM developers WHERE email = 'john.doe@gmail.com'");
+        //then
+        assertThat(specialtyPlan).containsIgnoringCase("idx_developers_specialty_status");
+        assertThat(emailPlan).containsIgnoringCase("ux_developers_email");
+    }
+
     @Test
     public void should_return_exception_when_find_by_id_and_developer_is_deleted() {
         //given
@@ -127,5 +472,9 @@ public class DeveloperRepositoryTests {
         assertThat(developerFound).isNull();
     }
 
-
+    private String explain(String sql) {
+        return String.valueOf(testEntityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql)
+                .getSingleResult());
+    }
 }
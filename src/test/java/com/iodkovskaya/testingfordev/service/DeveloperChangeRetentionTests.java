@@ -0,0 +1,105 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperChangeEntity;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.exception.ChangesPrunedException;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.outbox.DeveloperOutboxRelay;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeLockRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({SpecialtyDictionary.class, DeveloperChangeLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DeveloperChangeRetentionTests {
+    @Autowired
+    private DeveloperChangeRepository developerChangeRepository;
+    @Autowired
+    private DeveloperChangeLockRepository developerChangeLockRepository;
+    @Autowired
+    private DeveloperChangeLog developerChangeLog;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        developerChangeRepository.deleteAllInBatch();
+        jdbcTemplate.update("UPDATE developer_change_locks SET pruned_through = 0");
+    }
+
+    @Test
+    public void should_prune_expired_changes_the_outbox_relayed_and_reject_a_since_below_them() {
+        //given
+        Instant expired = Instant.now().minus(Duration.ofDays(10));
+        List<Long> seqs = List.of(change(1, expired), change(2, expired), change(3, expired), change(4, expired),
+                change(5, Instant.now()));
+        DeveloperOutboxRelay relay = Mockito.mock(DeveloperOutboxRelay.class);
+        BDDMockito.given(relay.getRelayedThrough())
+                .willReturn(seqs.get(2));
+        //when
+        retention(relay).prune();
+        //then
+        assertThat(developerChangeRepository.findAll())
+                .extracting(DeveloperChangeEntity::getSeq)
+                .containsExactlyInAnyOrder(seqs.get(3), seqs.get(4));
+        assertThrows(ChangesPrunedException.class, () -> developerChangeLog.getChangesSince(seqs.get(0), 10));
+        assertThat(developerChangeLog.getChangesSince(seqs.get(2), 10).getChanges())
+                .extracting(DeveloperChange::getSeq)
+                .containsExactly(seqs.get(3), seqs.get(4));
+    }
+
+    @Test
+    public void should_keep_the_newest_change_and_anything_younger_than_the_retention() {
+        //given
+        Instant expired = Instant.now().minus(Duration.ofDays(10));
+        List<Long> seqs = List.of(change(1, expired), change(2, Instant.now()), change(3, expired));
+        //when
+        retention(null).prune();
+        //then
+        assertThat(developerChangeRepository.findAll())
+                .extracting(DeveloperChangeEntity::getSeq)
+                .containsExactlyInAnyOrder(seqs.get(1), seqs.get(2));
+        assertThat(developerChangeLockRepository.findPrunedThrough(DeveloperChangeLog.LOCK_NAME)).contains(seqs.get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeveloperChangeRetention retention(DeveloperOutboxRelay relay) {
+        ObjectProvider<DeveloperOutboxRelay> provider = Mockito.mock(ObjectProvider.class);
+        BDDMockito.given(provider.getIfAvailable())
+                .willReturn(relay);
+        return new DeveloperChangeRetention(developerChangeRepository, developerChangeLockRepository, provider,
+                transactionTemplate, new SimpleMeterRegistry(), Duration.ofDays(7), 2);
+    }
+
+    private long change(Integer developerId, Instant changedAt) {
+        return developerChangeRepository.save(DeveloperChangeEntity.builder()
+                        .developerId(developerId)
+                        .type(DeveloperChangeType.HARD_DELETED)
+                        .changedAt(changedAt)
+                        .build())
+                .getSeq();
+    }
+}
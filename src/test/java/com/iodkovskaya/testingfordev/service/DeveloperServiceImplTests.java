@@ -1,20 +1,61 @@
 package com.iodkovskaya.testingfordev.service;
 
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.cache.DeveloperColumnStore;
+import com.iodkovskaya.testingfordev.cache.DeveloperEmailFilter;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.DeveloperStatsTracker;
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
 import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.event.DeveloperChangedEvent;
+import com.iodkovskaya.testingfordev.exception.DeveloperImportException;
 import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperVersionConflictException;
 import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.exception.SearchIndexNotReadyException;
+import com.iodkovskaya.testingfordev.metrics.DeveloperErrorMetrics;
+import com.iodkovskaya.testingfordev.model.BatchItemStatus;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.model.DeveloperPage;
+import com.iodkovskaya.testingfordev.model.SpecialtyCount;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
 import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
 import com.iodkovskaya.testingfordev.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
@@ -27,27 +68,96 @@ public class DeveloperServiceImplTests {
     //    private DeveloperServiceImpl developerService = new DeveloperServiceImpl(developerRepository);
     @Mock
     private DeveloperRepository developerRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private DeveloperCache developerCache = new DeveloperCache(100, Duration.ofMinutes(5), Duration.ZERO);
+    @Mock
+    private DeveloperEmailFilter developerEmailFilter;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DeveloperErrorMetrics developerErrorMetrics = new DeveloperErrorMetrics(meterRegistry);
+    @Mock
+    private DeveloperStatsTracker developerStatsTracker;
+    @Mock
+    private DeveloperSearchIndex developerSearchIndex;
+    @Mock
+    private DeveloperColumnStore developerColumnStore;
+    @Mock
+    private DeveloperChangeLog developerChangeLog;
+    @Mock
+    private SpecialtyDictionary specialtyDictionary;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private DeveloperServiceImpl developerService;
 
+    @BeforeEach
+    public void setUp() {
+        // outside a transaction the cache applies a change as soon as it is published
+        lenient().doAnswer(invocation -> {
+            developerCache.onDeveloperChanged(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(DeveloperChangedEvent.class));
+    }
+
     @Test
     public void should_create_developer_with_correct_data() {
         //given
         DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(developerEmailFilter.mightContain(anyString()))
+                .willReturn(true);
         BDDMockito.given(developerRepository.findByEmail(anyString()))
                 .willReturn(null);
-        BDDMockito.given(developerRepository.save(any(DeveloperEntity.class)))
+        BDDMockito.given(developerRepository.saveAndFlush(any(DeveloperEntity.class)))
                 .willReturn(DataUtils.getFirstDeveloperWithoutId());
         //when
         DeveloperEntity savedDeveloper = developerService.saveDeveloper(developer);
         //then
         assertThat(savedDeveloper).isNotNull();
+        verify(developerEmailFilter, times(1)).add(developer.getEmail());
+        verify(eventPublisher, times(1)).publishEvent(argThat((DeveloperChangedEvent event) ->
+                event.getType() == DeveloperChangeType.CREATED && event.getDevelopers().size() == 1));
+        verify(developerChangeLog, times(1)).recordById(eq(DeveloperChangeType.CREATED), any());
+    }
+
+    @Test
+    public void should_skip_duplicate_lookup_when_email_filter_rules_email_out() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(developerEmailFilter.mightContain(anyString()))
+                .willReturn(false);
+        BDDMockito.given(developerRepository.saveAndFlush(any(DeveloperEntity.class)))
+                .willReturn(DataUtils.getFirstDeveloperWithoutId());
+        //when
+        DeveloperEntity savedDeveloper = developerService.saveDeveloper(developer);
+        //then
+        assertThat(savedDeveloper).isNotNull();
+        verify(developerRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    public void should_throw_exception_when_unique_constraint_rejects_email() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(developerEmailFilter.mightContain(anyString()))
+                .willReturn(false);
+        BDDMockito.given(developerRepository.saveAndFlush(any(DeveloperEntity.class)))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+        //when
+        assertThrows(DeveloperWithDuplicateEmailException.class, () -> developerService.saveDeveloper(developer));
+        //then
+        verify(developerEmailFilter, never()).add(anyString());
     }
 
     @Test
     public void should_throw_exception_when_developer_with_email_already_exists() {
         //given
         DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(developerEmailFilter.mightContain(anyString()))
+                .willReturn(true);
         BDDMockito.given(developerRepository.findByEmail(anyString()))
                 .willReturn(DataUtils.getFirstDeveloperWithoutId());
         //when
@@ -55,7 +165,106 @@ public class DeveloperServiceImplTests {
         assertThrows(DeveloperWithDuplicateEmailException.class, () -> developerService.saveDeveloper(developer));
         //then
         //assertThrows(DeveloperWithDuplicateEmailException.class, e);
-        verify(developerRepository, never()).save(any(DeveloperEntity.class));
+        verify(developerRepository, never()).saveAndFlush(any(DeveloperEntity.class));
+    }
+
+    @Test
+    public void should_save_developers_in_batch_and_report_duplicates_per_item() {
+        //given
+        DeveloperEntity existing = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity fresh = DataUtils.getThirdDeveloperWithoutId();
+        DeveloperEntity repeated = DataUtils.getThirdDeveloperWithoutId();
+        BDDMockito.given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        BDDMockito.given(developerRepository.findExistingEmails(anyCollection()))
+                .willReturn(List.of(existing.getEmail()));
+        BDDMockito.given(developerRepository.saveAll(anyList()))
+                .willAnswer(invocation -> {
+                    List<DeveloperEntity> developers = invocation.getArgument(0);
+                    developers.forEach(developer -> developer.setId(10));
+                    return developers;
+                });
+        //when
+        BatchSaveResult result = developerService.saveDevelopers(List.of(existing, fresh, repeated));
+        //then
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(item -> item.getStatus())
+                .containsExactly(BatchItemStatus.DUPLICATE, BatchItemStatus.CREATED, BatchItemStatus.DUPLICATE);
+        assertThat(result.getItems().get(1).getId()).isEqualTo(10);
+        verify(developerRepository, times(1)).findExistingEmails(anyCollection());
+        verify(developerRepository, never()).findByEmail(anyString());
+        verify(developerEmailFilter, times(1)).add(fresh.getEmail());
+    }
+
+    @Test
+    public void should_import_developers_in_chunks_and_keep_only_totals() {
+        //given
+        BDDMockito.given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        BDDMockito.given(developerRepository.findExistingEmails(anyCollection()))
+                .willReturn(List.of());
+        List<DeveloperEntity> developers = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+            developer.setEmail("developer" + i + "@mail.com");
+            developers.add(developer);
+        }
+        //when
+        BatchSaveResult result = developerService.importDevelopers(developers.iterator());
+        //then
+        assertThat(result.getCreated()).isEqualTo(1200);
+        assertThat(result.getItems()).isNull();
+        verify(developerRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    public void should_save_records_read_before_a_malformed_one_and_report_them() {
+        //given
+        BDDMockito.given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        BDDMockito.given(developerRepository.findExistingEmails(anyCollection()))
+                .willReturn(List.of());
+        Iterator<DeveloperEntity> developers = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DeveloperEntity next() {
+                if (read == 502) {
+                    throw new UncheckedIOException(new IOException("Unexpected character"));
+                }
+                DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+                developer.setEmail("developer" + read++ + "@mail.com");
+                return developer;
+            }
+        };
+        //when
+        DeveloperImportException exception = assertThrows(DeveloperImportException.class,
+                () -> developerService.importDevelopers(developers));
+        //then
+        assertThat(exception.getImported().getCreated()).isEqualTo(502);
+        assertThat(exception.getCause()).isInstanceOf(UncheckedIOException.class);
+        verify(developerRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    public void should_export_all_developers_and_release_persistence_context() {
+        //given
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer2 = DataUtils.getSecondDeveloperWithoutId();
+        BDDMockito.given(developerRepository.streamAll())
+                .willReturn(Stream.of(developer1, developer2));
+        List<DeveloperEntity> consumed = new ArrayList<>();
+        //when
+        developerService.exportDevelopers(consumed::add);
+        //then
+        assertThat(consumed).containsExactly(developer1, developer2);
+        verify(entityManager, times(1)).clear();
     }
 
     @Test
@@ -63,15 +272,52 @@ public class DeveloperServiceImplTests {
         //given
         DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
         developer.setId(1);
-        BDDMockito.given(developerRepository.existsById(anyInt()))
-                .willReturn(true);
-        BDDMockito.given(developerRepository.save(any(DeveloperEntity.class)))
-                .willReturn(developer);
+        BDDMockito.given(developerRepository.updateById(anyInt(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(1);
         //when
         DeveloperEntity updatedDeveloper = developerService.updateDeveloper(developer);
         //then
         assertThat(updatedDeveloper).isNotNull();
-        verify(developerRepository, times(1)).save(any(DeveloperEntity.class));
+        verify(developerRepository, never()).existsById(anyInt());
+        verify(developerRepository, never()).save(any(DeveloperEntity.class));
+    }
+
+    @Test
+    public void should_publish_update_with_the_row_as_it_was_before() {
+        //given
+        DeveloperEntity previous = DataUtils.getFirstDeveloperWithoutId();
+        previous.setId(1);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        developer.setSpecialty("Go");
+        BDDMockito.given(developerStatsTracker.needsPreviousRows())
+                .willReturn(true);
+        BDDMockito.given(developerRepository.findByIdForUpdate(1))
+                .willReturn(Optional.of(previous));
+        BDDMockito.given(developerRepository.updateById(anyInt(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(1);
+        ArgumentCaptor<DeveloperChangedEvent> event = ArgumentCaptor.forClass(DeveloperChangedEvent.class);
+        //when
+        developerService.updateDeveloper(developer);
+        //then
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getDevelopers()).containsExactly(developer);
+        assertThat(event.getValue().getPrevious()).containsExactly(previous);
+    }
+
+    @Test
+    public void should_throw_exception_when_updated_email_belongs_to_another_developer() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.updateById(anyInt(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+        //when
+        assertThrows(DeveloperWithDuplicateEmailException.class, () -> developerService.updateDeveloper(developer));
+        //then
+        verify(developerEmailFilter, never()).add(anyString());
+        assertThat(meterRegistry.get("developers.errors").tag("exception", "DeveloperWithDuplicateEmailException").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -79,12 +325,82 @@ public class DeveloperServiceImplTests {
         //given
         DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
         developer.setId(1);
-        BDDMockito.given(developerRepository.existsById(anyInt()))
-                .willReturn(false);
+        BDDMockito.given(developerRepository.updateById(anyInt(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(0);
         //when
         assertThrows(DeveloperNotFoundException.class, () -> developerService.updateDeveloper(developer));
         //then
-        verify(developerRepository, never()).save(any(DeveloperEntity.class));
+        assertThat(developerCache.getById(1)).isEmpty();
+        assertThat(meterRegistry.get("developers.errors").tag("exception", "DeveloperNotFoundException").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_update_developer_when_expected_version_matches() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.updateByIdAndVersion(eq(1), eq(3L), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(1);
+        //when
+        DeveloperEntity updatedDeveloper = developerService.updateDeveloper(developer, 3L);
+        //then
+        assertThat(updatedDeveloper.getVersion()).isEqualTo(4L);
+        assertThat(developerCache.getById(1)).isEmpty();
+        verify(developerRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    public void should_throw_exception_when_expected_version_is_stale() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.updateByIdAndVersion(anyInt(), anyLong(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(0);
+        BDDMockito.given(developerRepository.existsById(1))
+                .willReturn(true);
+        //when
+        assertThrows(DeveloperVersionConflictException.class, () -> developerService.updateDeveloper(developer, 3L));
+        //then
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(meterRegistry.get("developers.errors").tag("exception", "DeveloperVersionConflictException").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_throw_exception_when_versioned_update_targets_missing_developer() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.updateByIdAndVersion(anyInt(), anyLong(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(0);
+        BDDMockito.given(developerRepository.existsById(1))
+                .willReturn(false);
+        //when
+        //then
+        assertThrows(DeveloperNotFoundException.class, () -> developerService.updateDeveloper(developer, 3L));
+    }
+
+    @Test
+    public void should_read_only_version_when_developer_is_not_cached() {
+        //given
+        BDDMockito.given(developerRepository.findVersionById(1))
+                .willReturn(Optional.of(5L));
+        //when
+        Long version = developerService.getDeveloperVersion(1);
+        //then
+        assertThat(version).isEqualTo(5L);
+        verify(developerRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void should_throw_exception_when_version_of_missing_developer_is_requested() {
+        //given
+        BDDMockito.given(developerRepository.findVersionById(1))
+                .willReturn(Optional.empty());
+        //when
+        //then
+        assertThrows(DeveloperNotFoundException.class, () -> developerService.getDeveloperVersion(1));
     }
 
     @Test
@@ -100,6 +416,68 @@ public class DeveloperServiceImplTests {
         assertThat(obtainedDeveloper).isNotNull();
     }
 
+    @Test
+    public void should_serve_repeated_lookup_by_id_from_cache() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.findById(1))
+                .willReturn(Optional.of(developer));
+        //when
+        developerService.getDeveloperById(1);
+        DeveloperEntity obtainedDeveloper = developerService.getDeveloperById(1);
+        //then
+        assertThat(obtainedDeveloper).isEqualTo(developer);
+        verify(developerRepository, times(1)).findById(1);
+        assertThat(developerCache.byIdStats().hitCount()).isEqualTo(1);
+        assertThat(developerCache.byIdStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_serve_old_email_from_cache_after_email_update() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        DeveloperEntity updated = DataUtils.getFirstDeveloperWithoutId();
+        updated.setId(1);
+        updated.setEmail("updated@gmail.com");
+        BDDMockito.given(developerRepository.findByEmail(developer.getEmail()))
+                .willReturn(developer)
+                .willReturn(null);
+        BDDMockito.given(developerRepository.updateById(anyInt(), anyString(), anyString(), anyString(), anyString(), any(Status.class)))
+                .willReturn(1);
+        DeveloperEntity persisted = DataUtils.getFirstDeveloperWithoutId();
+        persisted.setId(1);
+        persisted.setEmail("updated@gmail.com");
+        BDDMockito.given(developerRepository.findByEmail("updated@gmail.com"))
+                .willReturn(persisted);
+        developerService.getDeveloperByEmail(developer.getEmail());
+        //when
+        developerService.updateDeveloper(updated);
+        //then
+        assertThrows(DeveloperNotFoundException.class, () -> developerService.getDeveloperByEmail(developer.getEmail()));
+        assertThat(developerService.getDeveloperByEmail("updated@gmail.com")).isSameAs(persisted);
+        assertThat(developerService.getDeveloperById(1)).isEqualTo(persisted);
+        verify(developerRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    public void should_evict_developer_from_cache_on_hard_delete() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerRepository.findById(1))
+                .willReturn(Optional.of(developer))
+                .willReturn(Optional.empty());
+        BDDMockito.given(developerRepository.hardDeleteById(1))
+                .willReturn(1);
+        developerService.getDeveloperById(1);
+        //when
+        developerService.hardDeleteById(1);
+        //then
+        assertThrows(DeveloperNotFoundException.class, () -> developerService.getDeveloperById(1));
+    }
+
     @Test
     public void should_throw_exception_when_developer_by_id_not_found() {
         //given
@@ -139,25 +517,87 @@ public class DeveloperServiceImplTests {
     public void should_find_all_active_developers() {
         //given
         DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
-        DeveloperEntity developer2 = DataUtils.getSecondDeveloperWithoutId();
         DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
         developer1.setId(1);
-        developer2.setId(2);
         developer3.setId(3);
 
-        List<DeveloperEntity> developers = List.of(developer1, developer2, developer3);
-        BDDMockito.given(developerRepository.findAll())
+        List<DeveloperEntity> developers = List.of(developer1, developer3);
+        BDDMockito.given(developerRepository.findAllByStatus(Status.ACTIVE))
                 .willReturn(developers);
         //when
         List<DeveloperEntity> obtainedDevelopers = developerService.getAllDevelopers();
         //then
         assertThat(CollectionUtils.isEmpty(obtainedDevelopers)).isFalse();
         assertThat(obtainedDevelopers.size()).isEqualTo(2);
+        verify(developerRepository, never()).findAll();
+    }
+
+    @Test
+    public void should_serve_reads_from_warm_column_store_without_repository() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(developerColumnStore.getById(1))
+                .willReturn(Optional.of(developer));
+        BDDMockito.given(developerColumnStore.getByEmail(developer.getEmail()))
+                .willReturn(Optional.of(developer));
+        DeveloperDto dto = DeveloperDto.fromEntity(developer);
+        BDDMockito.willAnswer(invocation -> {
+            invocation.<Consumer<DeveloperDto>>getArgument(0).accept(dto);
+            return true;
+        }).given(developerColumnStore).forEachActive(any());
+        BDDMockito.given(developerColumnStore.getAllActiveDtosBySpecialty("Java"))
+                .willReturn(Optional.of(List.of(dto)));
+        List<DeveloperDto> streamed = new ArrayList<>();
+        //when
+        developerService.streamAllDevelopers(streamed::add);
+        //then
+        assertThat(developerService.getDeveloperById(1)).isSameAs(developer);
+        assertThat(developerService.getDeveloperByEmail(developer.getEmail())).isSameAs(developer);
+        assertThat(streamed).containsExactly(dto);
+        assertThat(developerService.getAllActiveDtosBySpecialty("Java")).containsExactly(dto);
+        verifyNoInteractions(developerRepository, specialtyDictionary);
+    }
+
+    @Test
+    public void should_take_the_list_stamp_from_the_column_store_while_it_serves_the_lists() {
+        //given
+        BDDMockito.given(developerColumnStore.getListStamp())
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(new DeveloperListStamp(1700000000000L, 3L)));
+        BDDMockito.given(developerChangeLog.getLastSeq())
+                .willReturn(42L);
+        //when
+        DeveloperListStamp cold = developerService.getListStamp();
+        DeveloperListStamp warm = developerService.getListStamp();
+        //then
+        assertThat(cold.toEtag()).isEqualTo("W/\"42\"");
+        assertThat(warm.toEtag()).isEqualTo("W/\"1700000000000.3\"");
+        verify(developerChangeLog, times(1)).getLastSeq();
+    }
+
+    @Test
+    public void should_stream_all_active_developers_and_release_persistence_context() {
+        //given
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        developer1.setId(1);
+        developer3.setId(3);
+        BDDMockito.given(developerRepository.streamAllByStatus(Status.ACTIVE))
+                .willReturn(Stream.of(developer1, developer3));
+        List<DeveloperDto> consumed = new ArrayList<>();
+        //when
+        developerService.streamAllDevelopers(consumed::add);
+        //then
+        assertThat(consumed).containsExactly(DeveloperDto.fromEntity(developer1), DeveloperDto.fromEntity(developer3));
+        verify(entityManager, times(1)).clear();
     }
 
     @Test
     public void should_find_all_developers_active_and_with_specialty() {
         //given
+        BDDMockito.given(specialtyDictionary.contains("Java"))
+                .willReturn(true);
         DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
         DeveloperEntity developer2 = DataUtils.getSecondDeveloperWithoutId();
         developer1.setId(1);
@@ -174,25 +614,145 @@ public class DeveloperServiceImplTests {
         assertThat(obtainedDevelopers.size()).isEqualTo(2);
     }
 
+    @Test
+    public void should_find_all_active_developer_dtos_with_specialty() {
+        //given
+        BDDMockito.given(specialtyDictionary.contains("Java"))
+                .willReturn(true);
+        BDDMockito.given(developerRepository.findAllActiveDtosBySpecialty("Java"))
+                .willReturn(List.of(DataUtils.getJohnDoeDtoPersisted(), DataUtils.getMikeSmithDtoPersisted()));
+        //when
+        List<DeveloperDto> obtainedDevelopers = developerService.getAllActiveDtosBySpecialty("Java");
+        //then
+        assertThat(obtainedDevelopers.size()).isEqualTo(2);
+        verify(developerRepository, never()).findAllActiveBySpecialty(anyString());
+    }
+
+    @Test
+    public void should_return_statistics_from_tracker() {
+        //given
+        BDDMockito.given(developerStatsTracker.getStats())
+                .willReturn(List.of(new SpecialtyStatusCount("Java", Status.ACTIVE, 2)));
+        //when
+        List<SpecialtyStatusCount> statistics = developerService.getStatistics();
+        //then
+        assertThat(statistics).containsExactly(new SpecialtyStatusCount("Java", Status.ACTIVE, 2));
+        verify(developerRepository, never()).countBySpecialtyAndStatus();
+    }
+
+    @Test
+    public void should_return_specialties_with_counts_from_tracker() {
+        //given
+        Map<Short, String> entries = new LinkedHashMap<>();
+        entries.put((short) 1, "Java");
+        entries.put((short) 2, "Go");
+        entries.put((short) 3, "Rust");
+        BDDMockito.given(specialtyDictionary.entries())
+                .willReturn(entries);
+        BDDMockito.given(developerStatsTracker.getStats())
+                .willReturn(List.of(
+                        new SpecialtyStatusCount("Go", Status.ACTIVE, 1),
+                        new SpecialtyStatusCount("Java", Status.ACTIVE, 2),
+                        new SpecialtyStatusCount("Java", Status.DELETED, 1)));
+        //when
+        List<SpecialtyCount> specialties = developerService.getSpecialties();
+        //then
+        assertThat(specialties).containsExactly(
+                new SpecialtyCount((short) 2, "Go", 1, 1),
+                new SpecialtyCount((short) 1, "Java", 2, 3),
+                new SpecialtyCount((short) 3, "Rust", 0, 0));
+    }
+
+    @Test
+    public void should_not_query_developers_for_unknown_specialty() {
+        //given
+        BDDMockito.given(specialtyDictionary.contains("Cobol"))
+                .willReturn(false);
+        //when
+        List<DeveloperEntity> developers = developerService.getAllActiveBySpecialty("Cobol");
+        int affected = developerService.deleteBySpecialty("Cobol", true);
+        //then
+        assertThat(developers).isEmpty();
+        assertThat(affected).isZero();
+        verify(developerRepository, never()).findAllActiveBySpecialty(anyString());
+        verify(developerRepository, never()).hardDeleteAllBySpecialty(anyString());
+        verify(developerChangeLog, never()).recordBySpecialty(any(), anyString(), anyBoolean());
+    }
+
+    @Test
+    public void should_search_developers_in_index_with_capped_limit() {
+        //given
+        DeveloperDto developer = DataUtils.getJohnDoeDtoTransient();
+        BDDMockito.given(developerSearchIndex.search("john", 100))
+                .willReturn(Optional.of(List.of(developer)));
+        //when
+        List<DeveloperDto> found = developerService.searchDevelopers("john", 5000);
+        //then
+        assertThat(found).containsExactly(developer);
+        verifyNoInteractions(developerRepository);
+    }
+
+    @Test
+    public void should_throw_exception_when_search_index_is_not_ready() {
+        //given
+        BDDMockito.given(developerSearchIndex.search(anyString(), anyInt()))
+                .willReturn(Optional.empty());
+        //when
+        assertThrows(SearchIndexNotReadyException.class, () -> developerService.searchDevelopers("john", 10));
+        //then
+        verify(developerSearchIndex, times(1)).search("john", 10);
+    }
+
+    @Test
+    public void should_return_page_with_next_cursor_when_more_developers_exist() {
+        //given
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        developer1.setId(1);
+        developer3.setId(3);
+        BDDMockito.given(developerRepository.findActivePageAfter(0, Limit.of(2)))
+                .willReturn(List.of(developer1, developer3));
+        //when
+        DeveloperPage page = developerService.getActiveDevelopersPage(null, 1);
+        //then
+        assertThat(page.getDevelopers()).containsExactly(developer1);
+        assertThat(page.getNextAfterId()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_return_last_page_without_next_cursor() {
+        //given
+        BDDMockito.given(specialtyDictionary.contains("Java"))
+                .willReturn(true);
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        developer3.setId(3);
+        BDDMockito.given(developerRepository.findActiveBySpecialtyPageAfter("Java", 1, Limit.of(11)))
+                .willReturn(List.of(developer3));
+        //when
+        DeveloperPage page = developerService.getActiveBySpecialtyPage("Java", 1, 10);
+        //then
+        assertThat(page.getDevelopers()).containsExactly(developer3);
+        assertThat(page.hasNext()).isFalse();
+    }
+
     @Test
     public void should_do_soft_deleting_for_developer_by_id() {
         //given
-        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
-        developer.setId(1);
-        BDDMockito.given(developerRepository.findById(anyInt()))
-                .willReturn(Optional.of(developer));
+        BDDMockito.given(developerRepository.softDeleteById(anyInt()))
+                .willReturn(1);
         //when
         developerService.softDeleteById(1);
         //then
-        verify(developerRepository, times(1)).save(any(DeveloperEntity.class));
-        verify(developerRepository, never()).deleteById(anyInt());
+        verify(developerRepository, never()).findById(anyInt());
+        verify(developerRepository, never()).save(any(DeveloperEntity.class));
+        verify(developerRepository, never()).hardDeleteById(anyInt());
     }
 
     @Test
     public void should_throw_exception_when_needs_to_do_soft_deleting_but_developer_not_exists() {
         //given
-        BDDMockito.given(developerRepository.findById(anyInt()))
-                .willReturn(Optional.empty());
+        BDDMockito.given(developerRepository.softDeleteById(anyInt()))
+                .willReturn(0);
         //when
         assertThrows(DeveloperNotFoundException.class, () -> developerService.softDeleteById(1));
         //then
@@ -200,27 +760,119 @@ public class DeveloperServiceImplTests {
     }
 
     @Test
-    public void givenCorrectId_whenHardDeleteById_thenDeleteRepoMethodIsCalled() {
+    public void should_soft_delete_developers_by_ids_and_evict_them_from_cache() {
         //given
         DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
         developer.setId(1);
-        BDDMockito.given(developerRepository.findById(anyInt()))
-                .willReturn(Optional.of(developer));
+        developerCache.put(developer);
+        BDDMockito.given(developerRepository.softDeleteAllByIdIn(List.of(1, 2)))
+                .willReturn(2);
+        //when
+        int affected = developerService.deleteByIds(List.of(1, 2, 1), false);
+        //then
+        assertThat(affected).isEqualTo(2);
+        assertThat(developerCache.getById(1)).isEmpty();
+        verify(developerRepository, never()).hardDeleteAllByIdIn(anyCollection());
+        verify(developerEmailFilter, never()).markStale(anyLong());
+    }
+
+    @Test
+    public void should_change_specialty_and_publish_updated_developers() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        developerCache.put(developer);
+        DeveloperEntity moved = DataUtils.getFirstDeveloperWithoutId();
+        moved.setId(1);
+        moved.setSpecialty("Go");
+        BDDMockito.given(developerRepository.updateSpecialtyByActiveIdIn(List.of(1, 2), "Go"))
+                .willReturn(1);
+        BDDMockito.given(developerRepository.findAllById(List.of(1, 2)))
+                .willReturn(List.of(moved));
+        //when
+        int affected = developerService.changeSpecialty(List.of(1, 2, 1), "Go");
+        //then
+        assertThat(affected).isEqualTo(1);
+        assertThat(developerCache.getById(1)).isEmpty();
+        verify(developerChangeLog, times(1)).recordByActiveIds(DeveloperChangeType.UPDATED, List.of(1, 2));
+        verify(eventPublisher, times(1)).publishEvent(argThat((DeveloperChangedEvent event) ->
+                event.getDevelopers().equals(List.of(moved))));
+    }
+
+    @Test
+    public void should_hard_delete_developers_by_specialty_in_one_statement() {
+        //given
+        BDDMockito.given(specialtyDictionary.isRegistered("Java"))
+                .willReturn(true);
+        BDDMockito.given(developerRepository.hardDeleteAllBySpecialty("Java"))
+                .willReturn(3);
+        //when
+        int affected = developerService.deleteBySpecialty("Java", true);
+        //then
+        assertThat(affected).isEqualTo(3);
+        verify(developerRepository, never()).findById(anyInt());
+        verify(developerEmailFilter, times(1)).markStale(3);
+    }
+
+    @Test
+    public void should_record_hard_delete_change_before_deleting_row() {
+        //given
+        BDDMockito.given(developerRepository.hardDeleteById(1))
+                .willReturn(1);
+        //when
+        developerService.hardDeleteById(1);
+        //then
+        InOrder inOrder = inOrder(developerChangeLog, developerRepository);
+        inOrder.verify(developerChangeLog).recordById(DeveloperChangeType.HARD_DELETED, 1);
+        inOrder.verify(developerRepository).hardDeleteById(1);
+    }
+
+    @Test
+    public void should_record_bulk_soft_delete_changes_only_for_active_developers() {
+        //given
+        BDDMockito.given(specialtyDictionary.isRegistered("Java"))
+                .willReturn(true);
+        BDDMockito.given(developerRepository.softDeleteAllBySpecialty("Java"))
+                .willReturn(2);
+        //when
+        developerService.deleteBySpecialty("Java", false);
+        //then
+        verify(developerChangeLog, times(1)).recordBySpecialty(DeveloperChangeType.SOFT_DELETED, "Java", true);
+    }
+
+    @Test
+    public void should_read_changes_with_normalized_since_and_limit() {
+        //given
+        DeveloperChangesPage page = new DeveloperChangesPage(List.of(), 0, false);
+        BDDMockito.given(developerChangeLog.getChangesSince(0, 1000))
+                .willReturn(page);
+        //when
+        DeveloperChangesPage obtained = developerService.getChangesSince(-5L, 5000);
+        //then
+        assertThat(obtained).isSameAs(page);
+    }
+
+    @Test
+    public void givenCorrectId_whenHardDeleteById_thenDeleteRepoMethodIsCalled() {
+        //given
+        BDDMockito.given(developerRepository.hardDeleteById(anyInt()))
+                .willReturn(1);
         //when
         developerService.hardDeleteById(1);
         //then
-        verify(developerRepository, times(1)).deleteById(anyInt());
+        verify(developerRepository, times(1)).hardDeleteById(anyInt());
+        verify(developerRepository, never()).findById(anyInt());
     }
 
 
     @Test
     public void givenIncorrectId_whenHardDeleteById_thenExceptionIsThrown() {
         //given
-        BDDMockito.given(developerRepository.findById(anyInt()))
-                .willReturn(Optional.empty());
+        BDDMockito.given(developerRepository.hardDeleteById(anyInt()))
+                .willReturn(0);
         //when
         assertThrows(DeveloperNotFoundException.class, () -> developerService.hardDeleteById(1));
         //then
-        verify(developerRepository, never()).deleteById(anyInt());
+        verify(developerEmailFilter, never()).markStale(anyLong());
     }
 }
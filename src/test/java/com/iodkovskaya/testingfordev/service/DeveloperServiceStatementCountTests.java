@@ -0,0 +1,321 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.cache.DeveloperCache;
+import com.iodkovskaya.testingfordev.cache.DeveloperSearchIndex;
+import com.iodkovskaya.testingfordev.cache.DeveloperStatsTracker;
+import com.iodkovskaya.testingfordev.dto.DeveloperDto;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.event.DeveloperChangeType;
+import com.iodkovskaya.testingfordev.model.BatchSaveResult;
+import com.iodkovskaya.testingfordev.model.DeveloperChange;
+import com.iodkovskaya.testingfordev.model.DeveloperChangesPage;
+import com.iodkovskaya.testingfordev.model.DeveloperListStamp;
+import com.iodkovskaya.testingfordev.model.SpecialtyStatusCount;
+import com.iodkovskaya.testingfordev.repository.DeveloperChangeRepository;
+import com.iodkovskaya.testingfordev.repository.DeveloperRepository;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import com.iodkovskaya.testingfordev.util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// a write that records changes pays three statements more at commit: locking the change log, moving the staged
+// changes to developer_changes and clearing the staging rows
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = SqlStatementCounter.PROPERTY)
+public class DeveloperServiceStatementCountTests {
+    @Autowired
+    private DeveloperService developerService;
+    @Autowired
+    private DeveloperRepository developerRepository;
+    @Autowired
+    private DeveloperChangeRepository developerChangeRepository;
+    @Autowired
+    private DeveloperCache developerCache;
+    @Autowired
+    private DeveloperStatsTracker developerStatsTracker;
+    @Autowired
+    private DeveloperSearchIndex developerSearchIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DeveloperChangeLog developerChangeLog;
+
+    @BeforeEach
+    public void setUp() {
+        developerRepository.deleteAllInBatch();
+        developerChangeRepository.deleteAllInBatch();
+        developerCache.evictAll();
+        developerStatsTracker.invalidate();
+    }
+
+    @Test
+    public void should_create_developer_with_at_most_one_lookup_one_insert_and_one_change_record() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        //when
+        SqlStatementCounter.reset();
+        developerService.saveDeveloper(developer);
+        //then
+        SqlStatementCounter.assertStatementCounts(2, 3, 0, 1);
+    }
+
+    @Test
+    public void should_save_developers_in_batch_with_one_lookup_batched_insert_and_one_change_record() {
+        //given
+        List<DeveloperEntity> developers = List.of(DataUtils.getFirstDeveloperWithoutId(),
+                DataUtils.getSecondDeveloperWithoutId(), DataUtils.getThirdDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        BatchSaveResult result = developerService.saveDevelopers(developers);
+        //then
+        assertThat(result.getCreated()).isEqualTo(3);
+        SqlStatementCounter.assertStatementCounts(2, 3, 0, 1);
+    }
+
+    @Test
+    public void should_update_developer_with_single_statement_and_one_change_record() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developer.setLastName("Updated");
+        //when
+        SqlStatementCounter.reset();
+        developerService.updateDeveloper(developer);
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 2, 1, 1);
+    }
+
+    @Test
+    public void should_update_developer_conditionally_with_single_statement_and_one_change_record() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developer.setLastName("Updated");
+        //when
+        SqlStatementCounter.reset();
+        DeveloperEntity updated = developerService.updateDeveloper(developer, developer.getVersion());
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 2, 1, 1);
+        assertThat(developerService.getDeveloperVersion(developer.getId())).isEqualTo(updated.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void should_read_back_the_committed_seq_with_one_select_more_only_while_seqs_are_watched() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developer.setLastName("Updated");
+        long[] committedSeq = new long[1];
+        developerChangeLog.watchSeqs();
+        //when
+        SqlStatementCounter.reset();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                developerService.updateDeveloper(developer);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        committedSeq[0] = developerChangeLog.getCommittedSeq().orElseThrow();
+                    }
+                });
+            });
+        } finally {
+            developerChangeLog.unwatchSeqs();
+        }
+        //then
+        SqlStatementCounter.assertStatementCounts(2, 2, 1, 1);
+        assertThat(committedSeq[0]).isEqualTo(developerChangeRepository.findLastSeq().orElseThrow());
+    }
+
+    @Test
+    public void should_take_the_list_stamp_with_one_select_and_move_it_with_every_committed_write() {
+        //given
+        DeveloperEntity developer = developerService.saveDeveloper(DataUtils.getFirstDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        DeveloperListStamp created = developerService.getListStamp();
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+
+        //when
+        developer.setLastName("Updated");
+        developerService.updateDeveloper(developer);
+        DeveloperListStamp updated = developerService.getListStamp();
+        developerService.hardDeleteById(developer.getId());
+        DeveloperListStamp deleted = developerService.getListStamp();
+        //then
+        assertThat(updated.getLastSeq()).isGreaterThan(created.getLastSeq());
+        assertThat(deleted.getLastSeq()).isGreaterThan(updated.getLastSeq());
+    }
+
+    @Test
+    public void should_read_developer_by_id_and_email_once_and_then_from_cache() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        developerService.getDeveloperById(developer.getId());
+        developerService.getDeveloperById(developer.getId());
+        developerService.getDeveloperByEmail(developer.getEmail());
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    public void should_list_developers_with_one_select_per_call() {
+        //given
+        developerRepository.saveAllAndFlush(List.of(DataUtils.getFirstDeveloperWithoutId(),
+                DataUtils.getSecondDeveloperWithoutId(), DataUtils.getThirdDeveloperWithoutId()));
+        //when
+        SqlStatementCounter.reset();
+        developerService.getAllDevelopers();
+        developerService.getAllActiveDtosBySpecialty("Java");
+        developerService.getActiveDevelopersPage(null, 2);
+        developerService.getActiveBySpecialtyPage("Java", null, 2);
+        developerService.streamAllDevelopers(developer -> {
+        });
+        //then
+        SqlStatementCounter.assertStatementCounts(5, 0, 0, 0);
+    }
+
+    @Test
+    public void should_serve_statistics_from_memory_and_apply_inserts_incrementally() {
+        //given
+        developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developerStatsTracker.invalidate();
+        developerService.getStatistics();
+        developerService.saveDeveloper(DataUtils.getThirdDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        List<SpecialtyStatusCount> statistics = developerService.getStatistics();
+        //then
+        SqlStatementCounter.assertStatementCounts(0, 0, 0, 0);
+        assertThat(statistics).containsExactly(new SpecialtyStatusCount("Java", Status.ACTIVE, 2));
+    }
+
+    @Test
+    public void should_not_read_the_previous_row_while_statistics_are_tracked_and_count_again_afterwards() {
+        //given
+        DeveloperEntity developer = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developerService.getStatistics();
+        developer.setStatus(Status.DELETED);
+        //when
+        SqlStatementCounter.reset();
+        developerService.updateDeveloper(developer);
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 2, 1, 1);
+
+        //when
+        SqlStatementCounter.reset();
+        List<SpecialtyStatusCount> statistics = developerService.getStatistics();
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+        assertThat(statistics).containsExactly(new SpecialtyStatusCount("Java", Status.DELETED, 1));
+    }
+
+    @Test
+    public void should_search_from_memory_and_see_writes_after_commit() {
+        //given
+        developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        developerSearchIndex.warmUp();
+        DeveloperEntity created = developerService.saveDeveloper(DataUtils.getThirdDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        List<DeveloperDto> byPrefix = developerService.searchDevelopers("mi smi", 10);
+        List<DeveloperDto> bySpecialty = developerService.searchDevelopers("java", 10);
+        //then
+        SqlStatementCounter.assertStatementCounts(0, 0, 0, 0);
+        assertThat(byPrefix).extracting(DeveloperDto::getId).containsExactly(created.getId());
+        assertThat(bySpecialty).hasSize(2);
+    }
+
+    @Test
+    public void should_return_changes_since_sequence_with_tombstones_in_one_select() {
+        //given
+        DeveloperEntity first = developerService.saveDeveloper(DataUtils.getFirstDeveloperWithoutId());
+        DeveloperEntity third = developerService.saveDeveloper(DataUtils.getThirdDeveloperWithoutId());
+        long since = developerService.getChangesSince(0L, 10).getNextSince();
+        first.setLastName("Updated");
+        developerService.updateDeveloper(first);
+        developerService.softDeleteById(first.getId());
+        developerService.hardDeleteById(third.getId());
+        //when
+        SqlStatementCounter.reset();
+        DeveloperChangesPage page = developerService.getChangesSince(since, 10);
+        //then
+        SqlStatementCounter.assertStatementCounts(1, 0, 0, 0);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getChanges()).extracting(DeveloperChange::getDeveloperId, DeveloperChange::getType, DeveloperChange::isTombstone)
+                .containsExactly(
+                        tuple(first.getId(), DeveloperChangeType.UPDATED, false),
+                        tuple(first.getId(), DeveloperChangeType.SOFT_DELETED, false),
+                        tuple(third.getId(), DeveloperChangeType.HARD_DELETED, true));
+        assertThat(page.getChanges().get(0).getDeveloper().getLastName()).isEqualTo("Updated");
+        assertThat(developerService.getChangesSince(page.getNextSince(), 10).getChanges()).isEmpty();
+    }
+
+    @Test
+    public void should_hand_out_seqs_in_commit_order_so_a_reader_never_steps_over_a_late_commit() throws Exception {
+        //given
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<DeveloperEntity> slow = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            DeveloperEntity saved = developerService.saveDeveloper(DataUtils.getFirstDeveloperWithoutId());
+            recorded.countDown();
+            await(commit);
+            return saved;
+        }));
+        assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+        DeveloperEntity fast = developerService.saveDeveloper(DataUtils.getThirdDeveloperWithoutId());
+        DeveloperChangesPage beforeSlowCommit = developerService.getChangesSince(0L, 10);
+        //when
+        commit.countDown();
+        DeveloperEntity slowDeveloper = slow.get(10, TimeUnit.SECONDS);
+        DeveloperChangesPage afterSlowCommit = developerService.getChangesSince(beforeSlowCommit.getNextSince(), 10);
+        //then
+        assertThat(beforeSlowCommit.getChanges()).extracting(DeveloperChange::getDeveloperId).containsExactly(fast.getId());
+        assertThat(afterSlowCommit.getChanges()).extracting(DeveloperChange::getDeveloperId).containsExactly(slowDeveloper.getId());
+    }
+
+    @Test
+    public void should_delete_developers_with_single_statement_and_one_change_record_per_call() {
+        //given
+        DeveloperEntity first = developerRepository.saveAndFlush(DataUtils.getFirstDeveloperWithoutId());
+        DeveloperEntity second = developerRepository.saveAndFlush(DataUtils.getSecondDeveloperWithoutId());
+        DeveloperEntity third = developerRepository.saveAndFlush(DataUtils.getThirdDeveloperWithoutId());
+        //when
+        SqlStatementCounter.reset();
+        developerService.softDeleteById(first.getId());
+        developerService.deleteByIds(List.of(second.getId()), false);
+        developerService.deleteBySpecialty("Java", false);
+        //then
+        SqlStatementCounter.assertStatementCounts(3, 6, 3, 3);
+
+        //when
+        SqlStatementCounter.reset();
+        developerService.hardDeleteById(third.getId());
+        developerService.deleteByIds(List.of(first.getId()), true);
+        developerService.deleteBySpecialty("Java", true);
+        //then
+        SqlStatementCounter.assertStatementCounts(3, 6, 0, 6);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
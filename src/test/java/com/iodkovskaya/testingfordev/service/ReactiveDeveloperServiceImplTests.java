@@ -0,0 +1,319 @@
+package com.iodkovskaya.testingfordev.service;
+
+import com.iodkovskaya.testingfordev.cache.SpecialtyDictionary;
+import com.iodkovskaya.testingfordev.entity.DeveloperEntity;
+import com.iodkovskaya.testingfordev.entity.DeveloperRow;
+import com.iodkovskaya.testingfordev.entity.Status;
+import com.iodkovskaya.testingfordev.exception.DeveloperNotFoundException;
+import com.iodkovskaya.testingfordev.exception.DeveloperWithDuplicateEmailException;
+import com.iodkovskaya.testingfordev.metrics.DeveloperErrorMetrics;
+import com.iodkovskaya.testingfordev.repository.ReactiveDeveloperRepository;
+import com.iodkovskaya.testingfordev.util.DataUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveDeveloperServiceImplTests {
+    private static final Short JAVA = 1;
+
+    @Mock
+    private ReactiveDeveloperRepository reactiveDeveloperRepository;
+    @Mock
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+    @Spy
+    private DeveloperErrorMetrics developerErrorMetrics = new DeveloperErrorMetrics(new SimpleMeterRegistry());
+    @Mock
+    private SpecialtyDictionary specialtyDictionary;
+    @InjectMocks
+    private ReactiveDeveloperServiceImpl reactiveDeveloperService;
+
+    @Test
+    public void should_create_developer_with_correct_data() {
+        //given
+        BDDMockito.given(specialtyDictionary.codeOf("Java"))
+                .willReturn(JAVA);
+        BDDMockito.given(specialtyDictionary.nameOf(JAVA))
+                .willReturn("Java");
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findByEmail(anyString()))
+                .willReturn(Mono.empty());
+        BDDMockito.given(reactiveDeveloperRepository.nextId())
+                .willReturn(Mono.just(1L));
+        BDDMockito.given(r2dbcEntityTemplate.insert(any(DeveloperRow.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.saveDeveloper(developer))
+                //then
+                .assertNext(savedDeveloper -> {
+                    assertThat(savedDeveloper.getId()).isEqualTo(1);
+                    assertThat(savedDeveloper.getEmail()).isEqualTo(developer.getEmail());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_throw_exception_when_developer_with_email_already_exists() {
+        //given
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findByEmail(anyString()))
+                .willReturn(Mono.just(DeveloperRow.fromEntity(developer, JAVA)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.saveDeveloper(developer))
+                //then
+                .expectError(DeveloperWithDuplicateEmailException.class)
+                .verify();
+        verify(reactiveDeveloperRepository, never()).nextId();
+        verify(r2dbcEntityTemplate, never()).insert(any(DeveloperRow.class));
+    }
+
+    @Test
+    public void should_throw_exception_when_unique_constraint_rejects_email() {
+        //given
+        BDDMockito.given(specialtyDictionary.codeOf("Java"))
+                .willReturn(JAVA);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findByEmail(anyString()))
+                .willReturn(Mono.empty());
+        BDDMockito.given(reactiveDeveloperRepository.nextId())
+                .willReturn(Mono.just(1L));
+        BDDMockito.given(r2dbcEntityTemplate.insert(any(DeveloperRow.class)))
+                .willReturn(Mono.error(new DataIntegrityViolationException("duplicate key")));
+        //when
+        StepVerifier.create(reactiveDeveloperService.saveDeveloper(developer))
+                //then
+                .expectError(DeveloperWithDuplicateEmailException.class)
+                .verify();
+    }
+
+    @Test
+    public void should_update_developer_when_developer_exists() {
+        //given
+        BDDMockito.given(specialtyDictionary.codeOf("Java"))
+                .willReturn(JAVA);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(reactiveDeveloperRepository.updateById(anyInt(), anyString(), anyString(), anyString(), eq(JAVA), any(Status.class)))
+                .willReturn(Mono.just(1));
+        //when
+        StepVerifier.create(reactiveDeveloperService.updateDeveloper(developer))
+                //then
+                .expectNext(developer)
+                .verifyComplete();
+        verify(reactiveDeveloperRepository, never()).save(any(DeveloperRow.class));
+    }
+
+    @Test
+    public void should_throw_exception_when_updated_email_belongs_to_another_developer() {
+        //given
+        BDDMockito.given(specialtyDictionary.codeOf("Java"))
+                .willReturn(JAVA);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(reactiveDeveloperRepository.updateById(anyInt(), anyString(), anyString(), anyString(), eq(JAVA), any(Status.class)))
+                .willReturn(Mono.error(new DataIntegrityViolationException("duplicate key")));
+        //when
+        StepVerifier.create(reactiveDeveloperService.updateDeveloper(developer))
+                //then
+                .expectError(DeveloperWithDuplicateEmailException.class)
+                .verify();
+    }
+
+    @Test
+    public void should_throw_exception_when_wont_to_update_developer_not_exists() {
+        //given
+        BDDMockito.given(specialtyDictionary.codeOf("Java"))
+                .willReturn(JAVA);
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(reactiveDeveloperRepository.updateById(anyInt(), anyString(), anyString(), anyString(), eq(JAVA), any(Status.class)))
+                .willReturn(Mono.just(0));
+        //when
+        StepVerifier.create(reactiveDeveloperService.updateDeveloper(developer))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void should_find_developer_by_id() {
+        //given
+        BDDMockito.given(specialtyDictionary.nameOf(JAVA))
+                .willReturn("Java");
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        developer.setId(1);
+        BDDMockito.given(reactiveDeveloperRepository.findById(anyInt()))
+                .willReturn(Mono.just(DeveloperRow.fromEntity(developer, JAVA)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.getDeveloperById(1))
+                //then
+                .expectNext(developer)
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_throw_exception_when_developer_by_id_not_found() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.findById(anyInt()))
+                .willReturn(Mono.empty());
+        //when
+        StepVerifier.create(reactiveDeveloperService.getDeveloperById(1))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void should_find_developer_by_email() {
+        //given
+        BDDMockito.given(specialtyDictionary.nameOf(JAVA))
+                .willReturn("Java");
+        DeveloperEntity developer = DataUtils.getFirstDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findByEmail(anyString()))
+                .willReturn(Mono.just(DeveloperRow.fromEntity(developer, JAVA)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.getDeveloperByEmail(developer.getEmail()))
+                //then
+                .expectNext(developer)
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_throw_exception_when_developer_with_email_not_exists() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.findByEmail(anyString()))
+                .willReturn(Mono.empty());
+        //when
+        StepVerifier.create(reactiveDeveloperService.getDeveloperByEmail("john.doe@mail.com"))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void should_find_all_active_developers() {
+        //given
+        BDDMockito.given(specialtyDictionary.nameOf(JAVA))
+                .willReturn("Java");
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        developer1.setId(1);
+        developer3.setId(3);
+        BDDMockito.given(reactiveDeveloperRepository.findAllByStatus(Status.ACTIVE))
+                .willReturn(Flux.just(DeveloperRow.fromEntity(developer1, JAVA), DeveloperRow.fromEntity(developer3, JAVA)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.getAllDevelopers(), 1)
+                //then
+                .expectNext(developer1)
+                .thenRequest(1)
+                .expectNext(developer3)
+                .verifyComplete();
+        verify(reactiveDeveloperRepository, never()).findAll();
+    }
+
+    @Test
+    public void should_find_all_developers_active_and_with_specialty() {
+        //given
+        BDDMockito.given(specialtyDictionary.findCode("Java"))
+                .willReturn(Optional.of(JAVA));
+        BDDMockito.given(specialtyDictionary.nameOf(JAVA))
+                .willReturn("Java");
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findAllActiveBySpecialtyCode(JAVA))
+                .willReturn(Flux.just(DeveloperRow.fromEntity(developer1, JAVA), DeveloperRow.fromEntity(developer3, JAVA)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.getAllActiveBySpecialty("Java"))
+                //then
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_resolve_loaded_specialties_in_memory_and_load_unknown_ones_off_the_calling_thread() {
+        //given
+        Short go = 2;
+        BDDMockito.given(specialtyDictionary.findLoadedCode("Java"))
+                .willReturn(Optional.of(JAVA));
+        BDDMockito.given(specialtyDictionary.findLoadedName(JAVA))
+                .willReturn(Optional.of("Java"));
+        BDDMockito.given(specialtyDictionary.nameOf(go))
+                .willAnswer(invocation -> Thread.currentThread().getName());
+        DeveloperEntity developer1 = DataUtils.getFirstDeveloperWithoutId();
+        DeveloperEntity developer3 = DataUtils.getThirdDeveloperWithoutId();
+        BDDMockito.given(reactiveDeveloperRepository.findAllActiveBySpecialtyCode(JAVA))
+                .willReturn(Flux.just(DeveloperRow.fromEntity(developer1, JAVA), DeveloperRow.fromEntity(developer3, go)));
+        //when
+        StepVerifier.create(reactiveDeveloperService.getAllActiveBySpecialty("Java"))
+                //then
+                .assertNext(developer -> assertThat(developer.getSpecialty()).isEqualTo("Java"))
+                .assertNext(developer -> assertThat(developer.getSpecialty()).startsWith("boundedElastic"))
+                .verifyComplete();
+        verify(specialtyDictionary, never()).findCode(anyString());
+        verify(specialtyDictionary, never()).nameOf(JAVA);
+    }
+
+    @Test
+    public void should_do_soft_deleting_for_developer_by_id() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.softDeleteById(anyInt()))
+                .willReturn(Mono.just(1));
+        //when
+        StepVerifier.create(reactiveDeveloperService.softDeleteById(1))
+                //then
+                .verifyComplete();
+        verify(reactiveDeveloperRepository, never()).save(any(DeveloperRow.class));
+    }
+
+    @Test
+    public void should_throw_exception_when_needs_to_do_soft_deleting_but_developer_not_exists() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.softDeleteById(anyInt()))
+                .willReturn(Mono.just(0));
+        //when
+        StepVerifier.create(reactiveDeveloperService.softDeleteById(1))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void givenCorrectId_whenHardDeleteById_thenDeleteRepoMethodIsCalled() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.hardDeleteById(anyInt()))
+                .willReturn(Mono.just(1));
+        //when
+        StepVerifier.create(reactiveDeveloperService.hardDeleteById(1))
+                //then
+                .verifyComplete();
+        verify(reactiveDeveloperRepository, times(1)).hardDeleteById(1);
+    }
+
+    @Test
+    public void givenIncorrectId_whenHardDeleteById_thenExceptionIsThrown() {
+        //given
+        BDDMockito.given(reactiveDeveloperRepository.hardDeleteById(anyInt()))
+                .willReturn(Mono.just(0));
+        //when
+        StepVerifier.create(reactiveDeveloperService.hardDeleteById(1))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,74 @@
+package com.iodkovskaya.testingfordev.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// wired through spring.jpa.properties.hibernate.session_factory.statement_inspector; only the thread that
+// called reset() is counted so background work such as the email filter warm-up does not leak in
+public class SqlStatementCounter implements StatementInspector {
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.iodkovskaya.testingfordev.util.SqlStatementCounter";
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+    private static volatile Thread owner;
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == owner) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+        owner = Thread.currentThread();
+    }
+
+    public static void assertSelectCount(int max) {
+        assertCount("select", max);
+    }
+
+    public static void assertInsertCount(int max) {
+        assertCount("insert", max);
+    }
+
+    public static void assertUpdateCount(int max) {
+        assertCount("update", max);
+    }
+
+    public static void assertDeleteCount(int max) {
+        assertCount("delete", max);
+    }
+
+    public static void assertStatementCounts(int selects, int inserts, int updates, int deletes) {
+        assertSelectCount(selects);
+        assertInsertCount(inserts);
+        assertUpdateCount(updates);
+        assertDeleteCount(deletes);
+    }
+
+    private static void assertCount(String type, int max) {
+        List<String> matching = statements(type);
+        assertThat(matching.size())
+                .as("%s statements, expected at most %d: %s", type, max, matching)
+                .isLessThanOrEqualTo(max);
+    }
+
+    // sequence fetches depend on the pooled optimizer's state rather than on the code under test
+    private static List<String> statements(String type) {
+        synchronized (STATEMENTS) {
+            return STATEMENTS.stream()
+                    .map(sql -> sql.trim().toLowerCase(Locale.ROOT))
+                    .filter(sql -> !sql.contains("next value for") && !sql.contains("nextval("))
+                    .filter(sql -> sql.startsWith(type))
+                    .toList();
+        }
+    }
+}